@@ -0,0 +1,159 @@
+package org.example.c4;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.example.config.BatchManifest;
+import org.example.service.ComponentChangeDetector;
+import org.example.service.SharedScanCache;
+import org.example.service.WorkspaceExporter;
+import org.example.utils.AtomicFileWriter;
+
+/**
+ * Scans many repositories in one JVM.
+ *
+ * <p>Every repository of a {@link BatchManifest} runs through its own {@link ModelPipeline} and
+ * snapshot namespace on a shared, bounded worker pool. The pipelines share a {@link SharedScanCache},
+ * so class directories used by several repositories (for example a common library build) are
+ * scanned only once. For each repository the change is detected against its own snapshot history;
+ * the workspace is exported only if it changed, and a change report is always written.</p>
+ */
+public class BatchRunner {
+
+    public enum Status {
+        CHANGED,
+        UNCHANGED,
+        FAILED
+    }
+
+    /**
+     * Outcome of one repository in a batch run.
+     */
+    public static class RepositoryResult {
+        public final String name;
+        public final Status status;
+        public final long elapsedMillis;
+        public final String message;
+
+        RepositoryResult(String name, Status status, long elapsedMillis, String message) {
+            this.name = name;
+            this.status = status;
+            this.elapsedMillis = elapsedMillis;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Processes every repository of the manifest and prints a summary.
+     *
+     * @param manifest The repositories to scan
+     * @return One result per repository, in manifest order
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static List<RepositoryResult> run(BatchManifest manifest) throws InterruptedException {
+        int threads = Math.max(1, manifest.getThreads());
+        System.out.println("\n=== BATCH RUN: " + manifest.getRepositories().size() +
+                " repositories on " + threads + " workers ===");
+
+        long start = System.nanoTime();
+        SharedScanCache scanCache = new SharedScanCache();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<RepositoryResult>> futures = new ArrayList<>();
+        List<RepositoryResult> results = new ArrayList<>();
+
+        try {
+            for (BatchManifest.Repository repository : manifest.getRepositories()) {
+                futures.add(pool.submit(() -> runRepository(repository, manifest.getOutputDir(), scanCache)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new RepositoryResult(manifest.getRepositories().get(i).getName(),
+                            Status.FAILED, 0, String.valueOf(e.getCause())));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println("\n=== BATCH SUMMARY ===");
+        for (RepositoryResult result : results) {
+            System.out.println(String.format(" %-9s %-40s %6d ms  %s",
+                    result.status, result.name, result.elapsedMillis, result.message));
+        }
+        System.out.println("Distinct class directories scanned: " + scanCache.size());
+        System.out.println("Total time: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        return results;
+    }
+
+    /**
+     * Scans one repository, detects changes against its snapshot history, exports if changed
+     * and writes the change report. Failures are reported in the result instead of thrown.
+     */
+    private static RepositoryResult runRepository(BatchManifest.Repository repository, String outputDir,
+                                                  SharedScanCache scanCache) {
+        long start = System.nanoTime();
+        String name = repository.getName();
+
+        try {
+            String snapshotDir = repository.resolveSnapshotDir(outputDir);
+            String exportPath = repository.resolveExportPath(outputDir);
+            Path reportPath = Path.of(repository.resolveReportPath(outputDir)).toAbsolutePath();
+            Files.createDirectories(Path.of(exportPath).toAbsolutePath().getParent());
+
+            StartupLoader startup = StartupLoader.start(repository.getC4Config(), repository.getStrategyConfig(), snapshotDir);
+            ModelPipeline pipeline = new ModelPipeline(repository.getC4Config(), repository.getStrategyConfig(), exportPath);
+            pipeline.useStartup(startup);
+            pipeline.setSharedScanCache(scanCache);
+            pipeline.run(ModelPipeline.Stage.ENRICHMENT);
+
+            if (!ComponentChangeDetector.validateContainersHaveComponents(pipeline.getScannedContainers())) {
+                return new RepositoryResult(name, Status.FAILED, elapsedSince(start), "no components found");
+            }
+
+            ComponentChangeDetector.ChangeDetection detection =
+                    ComponentChangeDetector.compareWithSnapshot(pipeline.getScannedContainers(), startup.previousSnapshot(), snapshotDir);
+            if (detection.contentChanged()) {
+                pipeline.run(ModelPipeline.Stage.EXPORT);
+            }
+            ComponentChangeDetector.recordSnapshot(detection);
+
+            String report = ComponentChangeDetector.generateChangeReport(detection.result);
+            AtomicFileWriter.write(reportPath, out -> out.write(report.getBytes(StandardCharsets.UTF_8)));
+
+            return detection.contentChanged()
+                    ? new RepositoryResult(name, Status.CHANGED, elapsedSince(start), "exported to " + WorkspaceExporter.resolveOutputFile(exportPath))
+                    : new RepositoryResult(name, Status.UNCHANGED, elapsedSince(start), "");
+        } catch (Exception e) {
+            System.err.println("Batch repository '" + name + "' failed: " + e.getMessage());
+            e.printStackTrace();
+            return new RepositoryResult(name, Status.FAILED, elapsedSince(start), String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Loads a manifest and runs it.
+     *
+     * @param manifestPath Path of the batch manifest JSON
+     * @return One result per repository, in manifest order
+     * @throws Exception if the manifest cannot be loaded or the run is interrupted
+     */
+    public static List<RepositoryResult> run(String manifestPath) throws Exception {
+        return run(BatchManifest.loadFromFile(new File(manifestPath)));
+    }
+
+    private static long elapsedSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
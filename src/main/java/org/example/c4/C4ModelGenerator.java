@@ -1,46 +1,57 @@
 package org.example.c4;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.Writer;
-import java.util.HashMap;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.structurizr.Workspace;
-import com.structurizr.io.json.JsonWriter;
 import com.structurizr.model.*;
 import com.structurizr.model.Component;
 import com.structurizr.view.*;
 import org.example.model.ContainerConfigDetail;
-import org.example.config.StrategyConfiguration;
 import org.example.model.*;
-import org.example.service.ComponentChangeDetector;
-import org.example.service.ComponentSerializationService;
-import org.example.service.ConfigurableComponentScanner;
-import org.example.utils.JsonSchemaValidator;
+import org.example.service.DiagramExporter;
+import org.example.service.WorkspaceExporter;
 
 
 public class C4ModelGenerator {
 
+    /** Default location of the C4 model configuration */
+    public static final String DEFAULT_CONFIG_PATH = "src/main/java/org/example/json/c4ModelConfig.json";
+
+    /** Default location of the component scanning strategy configuration */
+    public static final String DEFAULT_STRATEGY_CONFIG_PATH = "src/main/java/org/example/json/strategyConfig.json";
+
+    /** File the generated workspace is exported to unless {@value WorkspaceExporter#PATH_PROPERTY} is set */
+    public static final String DEFAULT_EXPORT_PATH = WorkspaceExporter.DEFAULT_EXPORT_PATH;
+
     //TODO: ADD FALLBACK FOR MISSING WORKSPACE CONFIG AND OTHER , PERSON SHOULD NOT BE MANDATORY
     //ADD SOME CHANGES
     public static void main(String[] args) throws Exception {
         System.out.println("=== Starting Avatar C4 Model Generation ===");
 
-        // Load complete C4 model configuration from JSON
-        File c4ConfigJson = new File("src/main/java/org/example/json/c4ModelConfig.json");
-        System.out.println("Loading C4 configuration from: " + c4ConfigJson.getAbsolutePath());
-
-        // Load with schema validation enabled
-        C4ModelConfigDetail c4Config = C4ModelConfigDetail.loadFromFile(c4ConfigJson, true);
-        System.out.println(" C4 configuration loaded and validated successfully");
+        new ModelPipeline(DEFAULT_CONFIG_PATH, DEFAULT_STRATEGY_CONFIG_PATH, WorkspaceExporter.defaultExportPath())
+                .run(ModelPipeline.Stage.EXPORT);
+    }
 
+    /**
+     * Creates the workspace with all configured persons, software systems and containers.
+     *
+     * @param c4Config        The complete C4 model configuration
+     * @param persons         Filled with the created persons, keyed by name
+     * @param softwareSystems Filled with the created software systems, keyed by name
+     * @param containers      Filled with the created containers, keyed by name
+     * @return The new workspace, without relationships, components or views
+     */
+    static Workspace createElements(C4ModelConfigDetail c4Config,
+                                    Map<String, Person> persons,
+                                    Map<String, SoftwareSystem> softwareSystems,
+                                    Map<String, Container> containers) {
         // Create workspace with configured metadata
         WorkspaceDetail workspaceConfig = c4Config.getWorkspace();
         Workspace workspace = new Workspace(workspaceConfig.getName(), workspaceConfig.getDescription());
         Model model = workspace.getModel();
-        ViewSet views = workspace.getViews();
 
         System.out.println("\n=== WORKSPACE CREATED ===");
         System.out.println("Name: " + workspaceConfig.getName());
@@ -49,7 +60,6 @@ public class C4ModelGenerator {
 
         // Create persons from configuration
         System.out.println("\n=== CREATING PERSONS ===");
-        Map<String, Person> persons = new HashMap<>();
         for (PersonDetail personConfig : c4Config.getPersons()) {
             Person person = model.addPerson(personConfig.getName(), personConfig.getDescription());
             persons.put(personConfig.getName(), person);
@@ -59,7 +69,6 @@ public class C4ModelGenerator {
 
         // Create software systems from configuration
         System.out.println("\n=== CREATING SOFTWARE SYSTEMS ===");
-        Map<String, SoftwareSystem> softwareSystems = new HashMap<>();
         for (SoftwareSystemDetail systemConfig : c4Config.getSoftwareSystems()) {
             SoftwareSystem system = model.addSoftwareSystem(systemConfig.getName(), systemConfig.getDescription());
             softwareSystems.put(systemConfig.getName(), system);
@@ -69,7 +78,6 @@ public class C4ModelGenerator {
 
         // Create containers from configuration
         System.out.println("\n=== CREATING CONTAINERS ===");
-        Map<String, Container> containers = new HashMap<>();
         for (ContainerConfigDetail containerConfig : c4Config.getContainers()) {
             String systemName = containerConfig.getSoftwareSystemName();
             SoftwareSystem parentSystem = softwareSystems.get(systemName);
@@ -96,6 +104,21 @@ public class C4ModelGenerator {
 
         System.out.println("Total containers created: " + containers.size());
 
+        return workspace;
+    }
+
+    /**
+     * Establishes every person, software system and container relationship declared in the configuration.
+     *
+     * @param c4Config        The complete C4 model configuration
+     * @param persons         Persons keyed by name
+     * @param softwareSystems Software systems keyed by name
+     * @param containers      Containers keyed by name
+     */
+    static void establishRelationships(C4ModelConfigDetail c4Config,
+                                       Map<String, Person> persons,
+                                       Map<String, SoftwareSystem> softwareSystems,
+                                       Map<String, Container> containers) {
         // Establish person relationships
         establishPersonRelationships(c4Config, persons, softwareSystems, containers);
 
@@ -108,73 +131,21 @@ public class C4ModelGenerator {
 
         // Establish container relationships
         establishContainerRelationships(c4Config, containers);
+    }
 
-
-        // Load component mapper configuration for enrichment (automated from config)
-        System.out.println("\n=== LOADING COMPONENT CONFIGURATIONS ===");
-        Map<String, ContainerDetail> allContainers = c4Config.getContainerMap();
-        System.out.println(" Component mapper configurations loaded: " + allContainers.size() + " containers");
-
-        // Dynamically extract component maps for all containers in config
-        Map<String, Map<String, ComponentDetail>> containerComponentMaps = new HashMap<>();
-
-        for (Map.Entry<String, ContainerDetail> entry : allContainers.entrySet()) {
-            String containerKey = entry.getKey();
-            ContainerDetail containerDetail = entry.getValue();
-
-            if (containerDetail != null) {
-                Map<String, ComponentDetail> componentMap = containerDetail.getComponentMap();
-                containerComponentMaps.put(containerKey, componentMap);
-                System.out.println( containerKey + " component config loaded: " +
-                        (componentMap != null ? componentMap.size() : 0) + " components");
-            }
-        }
-
-        // Load strategy configuration
-        System.out.println("\n=== LOADING STRATEGY CONFIGURATION ===");
-        File strategyConfigJson = new File("src/main/java/org/example/json/strategyConfig.json");
-        StrategyConfiguration strategyConfig = StrategyConfiguration.loadFromFile(strategyConfigJson);
-        System.out.println(" Strategy configuration loaded from: " + strategyConfigJson.getAbsolutePath());
-
-        // Create configurable component scanner
-        ConfigurableComponentScanner scanner = new ConfigurableComponentScanner(strategyConfig);
-        System.out.println(" Component scanner initialized");
-
-        // Get containers dynamically from configuration for component scanning
-        System.out.println("\n=== PREPARING CONTAINERS FOR COMPONENT SCANNING ===");
-        Map<String, Container> containersForScanning = new HashMap<>();
-
-        // Map container names from config to actual containers
-        for (ContainerConfigDetail containerConfig : c4Config.getContainers()) {
-            Container container = containers.get(containerConfig.getName());
-            if (container != null) {
-                containersForScanning.put(containerConfig.getName(), container);
-                System.out.println("- " + containerConfig.getName() + ": found");
-            } else {
-                System.out.println("- " + containerConfig.getName() + ":  (not found)");
-            }
-        }
-
-
-        // Scan all containers automatically using configured strategies
-        System.out.println("\n=== SCANNING CONTAINERS FOR COMPONENTS ===");
-        for (Map.Entry<String, Container> entry : containersForScanning.entrySet()) {
-            String containerName = entry.getKey();
-            Container container = entry.getValue();
-
-            // Find corresponding container key in the component configuration
-            String containerKey = findContainerKeyInConfig(containerName, allContainers);
-            Map<String, ComponentDetail> componentMap = containerComponentMaps.get(containerKey);
-
-            System.out.println("Scanning container: " + container.getName() +
-                    " (config key: " + containerKey + ")");
-
-            scanner.scanContainer(container, containerKey, componentMap);
-            System.out.println(" Completed scanning: " + container.getName() +
-                    " (" + container.getComponents().size() + " components)");
-        }
-
-        // Create views
+    /**
+     * Creates system context and container views for every software system with containers,
+     * and a component view for every scanned container with components. Containers with more
+     * components than {@value ComponentViewPartitioner#MAX_COMPONENTS_PROPERTY} get several bounded
+     * component views instead, see {@link ComponentViewPartitioner}.
+     *
+     * @param views                 The workspace view set
+     * @param softwareSystems       Software systems keyed by name
+     * @param containersForScanning Scanned containers keyed by name
+     */
+    static void createViews(ViewSet views,
+                            Map<String, SoftwareSystem> softwareSystems,
+                            Map<String, Container> containersForScanning) {
         System.out.println("\n=== CREATING VIEWS ===");
 
         // Create system context views for each software system
@@ -225,11 +196,16 @@ public class C4ModelGenerator {
 
         // Create component views automatically for all scanned containers
         int componentViewCount = 0;
+        int maxComponents = ComponentViewPartitioner.maxComponents();
         for (Map.Entry<String, Container> entry : containersForScanning.entrySet()) {
             String containerName = entry.getKey();
             Container container = entry.getValue();
 
-            if (container.getComponents().size() > 0) {
+            if (ComponentViewPartitioner.needsSplit(container, maxComponents)) {
+                // Oversized views are replaced by bounded views and a group overview
+                componentViewCount += ComponentViewPartitioner.split(views, container, containerName,
+                        generateContainerViewKey(containerName), maxComponents, ComponentViewPartitioner.PartitionBy.current());
+            } else if (container.getComponents().size() > 0) {
                 String viewKey = generateContainerViewKey(containerName);
                 String viewTitle = containerName + " Components";
 
@@ -245,9 +221,14 @@ public class C4ModelGenerator {
             }
         }
         System.out.println("Total component views created: " + componentViewCount);
-        System.out.println("Total component views created: " + componentViewCount);
+    }
 
-        // Add styles
+    /**
+     * Applies the element styles used for visualization.
+     *
+     * @param views The workspace view set
+     */
+    static void applyStyles(ViewSet views) {
         System.out.println("\n=== APPLYING STYLES ===");
         Styles styles = views.getConfiguration().getStyles();
         styles.addElementStyle(Tags.PERSON).background("#08427b").color("#ffffff").shape(Shape.Person);
@@ -262,14 +243,38 @@ public class C4ModelGenerator {
         styles.addElementStyle("Implementation").background("#f5da55").color("#000000");
         styles.addElementStyle("Infrastructure").background("#b86950").color("#ffffff");
         System.out.println(" Element styles applied for visualization");
+    }
 
-        // Export to JSON
+    /**
+     * Exports the workspace as Structurizr JSON, compact, gzipped and split per view if
+     * configured, and stores its content hash next to it. An identical export is left untouched.
+     * Diagrams are rendered in the formats requested with {@value DiagramExporter#FORMATS_PROPERTY}.
+     * See {@link WorkspaceExporter} and {@link DiagramExporter}.
+     *
+     * @param workspace  The workspace to export
+     * @param outputPath The file to write
+     * @return The written file and its content hash
+     * @throws Exception if the workspace cannot be written
+     */
+    static WorkspaceExporter.ExportResult exportWorkspace(Workspace workspace, String outputPath) throws Exception {
         System.out.println("\n=== EXPORTING MODEL ===");
-        try (Writer writer = new FileWriter("avatar-c4-model.json")) {
-            new JsonWriter(true).write(workspace, writer);
-            System.out.println(" Avatar C4 model exported to avatar-c4-model.json");
+        WorkspaceExporter.ExportResult result = WorkspaceExporter.export(workspace, outputPath);
+        if (result.written) {
+            System.out.println(" Avatar C4 model exported to " + result.file + " (sha256 " + result.contentHash + ")");
+        } else {
+            System.out.println(" Avatar C4 model unchanged - kept " + result.file + " (sha256 " + result.contentHash + ")");
+        }
+        if (result.viewsDirectory != null) {
+            System.out.println(" " + result.viewFilesWritten + " view file(s) updated in " + result.viewsDirectory);
+        }
+
+        Set<DiagramExporter.Format> formats = DiagramExporter.configuredFormats();
+        if (!formats.isEmpty()) {
+            Path diagrams = WorkspaceExporter.siblingDirectory(result.file, DiagramExporter.DIRECTORY_SUFFIX);
+            int written = DiagramExporter.export(workspace.getViews(), diagrams, formats, result.contentHash);
+            System.out.println(" " + written + " diagram file(s) " + formats + " updated in " + diagrams);
         }
-        
+        return result;
     }
 
 
@@ -314,57 +319,67 @@ public class C4ModelGenerator {
     /**
      * Assigns component metadata and relationships from JSON configuration to discovered components.
      *
-     * This method iterates through all components in the container and matches them with
-     * their corresponding configuration entries in the component map. When a match is found
-     * (based on component name substring matching), it applies the metadata (technology,
-     * tags, description) and establishes relationships to other components.
+     * @param container The container whose components need to be enriched
+     * @param componentMap Map of component identifiers to their detailed configurations
+     * @see #assignRealtionFromJson(Container, ComponentIndex)
+     */
+    public static void assignRealtionFromJson(Container container, Map<String, ComponentDetail> componentMap) {
+        if (componentMap == null || componentMap.isEmpty()) {
+            return;
+        }
+        assignRealtionFromJson(container, ComponentIndex.of(componentMap.values()));
+    }
+
+    /**
+     * Assigns component metadata and relationships from JSON configuration to discovered components.
+     *
+     * This method looks up every component in the container in the component index. When
+     * a configured entry exists for the component's name (compared case-insensitively), or
+     * a rule matches its name, class or package, it applies the metadata (technology, tags,
+     * description) and establishes relationships to other components.
      *
      * The relationship establishment includes validation to ensure target components exist
      * before creating the relationship links.
      *
      * @param container The container whose components need to be enriched
-     * @param componentMap Map of component identifiers to their detailed configurations
+     * @param componentIndex Index of the container's configured components
      */
-    public static void assignRealtionFromJson(Container container, Map<String, ComponentDetail> componentMap) {
-        if (componentMap == null || componentMap.isEmpty()) {
+    public static void assignRealtionFromJson(Container container, ComponentIndex componentIndex) {
+        if (componentIndex == null || componentIndex.isEmpty()) {
             return;
         }
 
         for (Component component : container.getComponents()) {
-            for (Map.Entry<String, ComponentDetail> entry : componentMap.entrySet()) {
-                String keySubstring = entry.getKey().toLowerCase().trim();
-                ComponentDetail detail = entry.getValue();
+            ComponentDetail detail = componentIndex.lookup(component.getName(),
+                    component.getProperties().get(ComponentIndex.TYPE_PROPERTY));
+            if (detail == null) {
+                continue;
+            }
 
-                String componentName = component.getName().toLowerCase().trim();
+            // Apply metadata
+            if (detail.getTechnology() != null) {
+                component.setTechnology(detail.getTechnology());
+            }
+            if (detail.getTags() != null) {
+                component.addTags(detail.getTags());
+            }
+            if (detail.getDescription() != null) {
+                component.setDescription(detail.getDescription());
+            }
 
-                if (componentName.equals(keySubstring)) {
-                    // Apply metadata
-                    if (detail.getTechnology() != null) {
-                        component.setTechnology(detail.getTechnology());
-                    }
-                    if (detail.getTags() != null) {
-                        component.addTags(detail.getTags());
-                    }
-                    if (detail.getDescription() != null) {
-                        component.setDescription(detail.getDescription());
-                    }
+            // Apply relationships
+            List<Relations> relations = detail.getRelations();
+            if (relations != null && !relations.isEmpty()) {
 
-                    // Apply relationships
-                    List<Relations> relations = detail.getRelations();
-                    if (relations != null && !relations.isEmpty()) {
-
-                        for (Relations relation : relations) {
-                            System.out.println("Processing relation: " + relation.getType() + " to " + relation.getTarget());
-                            Component targetComponent = container.getComponentWithName(relation.getTarget());
-                            if (targetComponent != null) {
-                                component.uses(targetComponent, relation.getType());
-                                System.out.println("Added relation from " + component.getName() + " to " + targetComponent.getName() + " of type " + relation.getType());
-                            } else {
-                                System.out.println("Target component " + relation.getTarget() + " not found for relation in " + component.getName());
-                            }
-                        }
+                for (Relations relation : relations) {
+                    System.out.println("Processing relation: " + relation.getType() + " to " + relation.getTarget());
+                    Component targetComponent = container.getComponentWithName(relation.getTarget());
+                    if (targetComponent != null) {
+                        component.uses(targetComponent, relation.getType());
+                        System.out.println("Added relation from " + component.getName() + " to " + targetComponent.getName() + " of type " + relation.getType());
+                    } else {
+                        System.out.println("Target component " + relation.getTarget() + " not found for relation in " + component.getName());
                     }
-                    break;
                 }
             }
         }
@@ -378,7 +393,7 @@ public class C4ModelGenerator {
      * @param allContainers Map of all container configurations
      * @return The configuration key for the container, or null if not found
      */
-    private static String findContainerKeyInConfig(String containerName, Map<String, ContainerDetail> allContainers) {
+    static String findContainerKeyInConfig(String containerName, Map<String, ContainerDetail> allContainers) {
         if (containerName == null || allContainers == null || allContainers.isEmpty()) {
             return null;
         }
@@ -1,19 +1,22 @@
 package org.example.c4;
 
-import java.io.File;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.structurizr.model.*;
 import org.example.model.ContainerConfigDetail;
 import org.example.config.StrategyConfiguration;
 import org.example.model.C4ModelConfigDetail;
-import org.example.model.ComponentDetail;
+import org.example.model.ComponentIndex;
 import org.example.model.ContainerDetail;
 import org.example.model.SoftwareSystemDetail;
 import org.example.service.ComponentChangeDetector;
 import org.example.service.ComponentSerializationService;
 import org.example.service.ConfigurableComponentScanner;
+import org.example.service.InputFingerprint;
+import org.example.service.SnapshotHistoryQuery;
+import org.example.service.SnapshotManifest;
 
 /**
  * CI/CD-focused entry point for component change detection and model generation.
@@ -28,6 +31,13 @@ import org.example.service.ConfigurableComponentScanner;
  *   <li><strong>generate-if-changed</strong> - Generate full model only if changes detected</li>
  *   <li><strong>serialize-only</strong> - Only serialize components without full model generation</li>
  *   <li><strong>baseline</strong> - Create initial baseline snapshot</li>
+ *   <li><strong>pipeline</strong> - Scan once, detect changes, and generate, export and snapshot only if changed</li>
+ *   <li><strong>watch</strong> - Keep running and re-export after every recompile, rescanning only changed containers</li>
+ *   <li><strong>server</strong> - Serve rescans, the workspace, change reports and history diffs over local HTTP</li>
+ *   <li><strong>batch</strong> - Scan all repositories of a batch manifest concurrently, each with its own snapshots</li>
+ *   <li><strong>history-list</strong> - List the recorded snapshot history</li>
+ *   <li><strong>history-diff</strong> - Diff two historical snapshots by timestamp, hash or label</li>
+ *   <li><strong>history-label</strong> - Attach a label (e.g. a release) to a historical snapshot</li>
  * </ul>
  *
  * <p>This approach optimizes CI/CD pipeline execution time by avoiding unnecessary
@@ -43,12 +53,16 @@ public class C4ModelGeneratorCI {
      * CI/CD entry point with mode-based operation.
      *
      * @param args Command line arguments:
-     *             [0] mode: "change-detect", "generate-if-changed", "serialize-only", "baseline"
-     *             [1] optional: configuration file path (defaults to standard location)
+     *             [0] mode: "change-detect", "generate-if-changed", "serialize-only", "baseline",
+     *                 "pipeline", "watch", "server", "batch", "history-list", "history-diff", "history-label"
+     *             [1] optional: configuration file path (defaults to standard location);
+     *                 for history modes the snapshot reference(s) and label, for batch mode the manifest path
+     *             [2] optional: strategy configuration file path (defaults to standard location)
      */
     public static void main(String[] args) {
         String mode = args.length > 0 ? args[0] : "change-detect";
-        String configPath = args.length > 1 ? args[1] : "src/main/java/org/example/json/c4ModelConfig.json";
+        String configPath = args.length > 1 ? args[1] : C4ModelGenerator.DEFAULT_CONFIG_PATH;
+        String strategyPath = args.length > 2 ? args[2] : C4ModelGenerator.DEFAULT_STRATEGY_CONFIG_PATH;
 
         System.out.println("=== C4 Model Generator - CI/CD Mode ===");
         System.out.println("Mode: " + mode);
@@ -57,16 +71,37 @@ public class C4ModelGeneratorCI {
         try {
             switch (mode.toLowerCase()) {
                 case "change-detect":
-                    runChangeDetectionMode(configPath);
+                    runChangeDetectionMode(configPath, strategyPath);
                     break;
                 case "generate-if-changed":
-                    runGenerateIfChangedMode(configPath);
+                    runGenerateIfChangedMode(configPath, strategyPath);
                     break;
                 case "serialize-only":
-                    runSerializeOnlyMode(configPath);
+                    runSerializeOnlyMode(configPath, strategyPath);
                     break;
                 case "baseline":
-                    runBaselineMode(configPath);
+                    runBaselineMode(configPath, strategyPath);
+                    break;
+                case "pipeline":
+                    runPipelineMode(configPath, strategyPath);
+                    break;
+                case "watch":
+                    runWatchMode(configPath, strategyPath);
+                    break;
+                case "server":
+                    runServerMode(configPath, strategyPath);
+                    break;
+                case "batch":
+                    runBatchMode(args.length > 1 ? args[1] : null);
+                    break;
+                case "history-list":
+                    runHistoryListMode();
+                    break;
+                case "history-diff":
+                    runHistoryDiffMode(args.length > 1 ? args[1] : null, args.length > 2 ? args[2] : "latest");
+                    break;
+                case "history-label":
+                    runHistoryLabelMode(args.length > 1 ? args[1] : null, args.length > 2 ? args[2] : null);
                     break;
                 default:
                     System.err.println("Unknown mode: " + mode);
@@ -76,23 +111,41 @@ public class C4ModelGeneratorCI {
         } catch (Exception e) {
             System.err.println("CI/CD execution failed: " + e.getMessage());
             e.printStackTrace();
-            System.exit(1);
+            // Pipeline and batch modes report changes with exit code 1, so failures must not look like changes
+            System.exit("pipeline".equalsIgnoreCase(mode) || "batch".equalsIgnoreCase(mode) ? 2 : 1);
         }
     }
 
     /**
      * Change detection mode - only detects changes and exits with appropriate code.
      * Exit code 0: No changes, Exit code 1: Changes detected, Exit code 2: Error
+     *
+     * <p>Records the snapshot and the input fingerprint, so a following generate-if-changed or
+     * pipeline run on the same inputs finds nothing to generate; those modes detect changes
+     * themselves and are used instead of this one.</p>
      */
-    private static void runChangeDetectionMode(String configPath) throws Exception {
+    private static void runChangeDetectionMode(String configPath, String strategyPath) throws Exception {
         System.out.println("\n=== CHANGE DETECTION MODE ===");
 
+        StartupLoader startup = StartupLoader.start(configPath, strategyPath, ComponentSerializationService.COMPONENTS_DIR);
+
+        // Nothing the scan depends on changed: skip building a workspace altogether
+        String fingerprint = startup.fingerprint();
+        if (InputFingerprint.matchesStored(ComponentSerializationService.COMPONENTS_DIR, fingerprint)) {
+            System.out.println("Input fingerprint unchanged: " + fingerprint);
+            System.out.println("EXIT: No changes detected - pipeline can skip");
+            System.exit(0);
+        }
+
         // Quick component scan without full model generation
-        Map<String, Container> containers = performQuickComponentScan(configPath);
+        Map<String, Container> containers = performQuickComponentScan(startup);
 
         if (ComponentChangeDetector.validateContainersHaveComponents(containers)) {
-            ComponentSerializationService.ComponentComparisonResult result =
-                    ComponentChangeDetector.detectChanges(containers);
+            ComponentChangeDetector.ChangeDetection detection = ComponentChangeDetector.compareWithSnapshot(
+                    containers, startup.previousSnapshot(), ComponentSerializationService.COMPONENTS_DIR);
+            ComponentChangeDetector.recordSnapshot(detection);
+            ComponentSerializationService.ComponentComparisonResult result = detection.result;
+            InputFingerprint.store(ComponentSerializationService.COMPONENTS_DIR, fingerprint);
 
             if (result.hasChanges) {
                 System.out.println("EXIT: Changes detected - triggering downstream pipeline");
@@ -109,24 +162,26 @@ public class C4ModelGeneratorCI {
 
     /**
      * Generate if changed mode - full generation only if changes detected.
+     *
+     * <p>Runs change detection first on a full-model scan. If the content hash matches the latest
+     * snapshot, no views are built and nothing is exported. Otherwise the already scanned
+     * containers are turned into the full workspace without rescanning.</p>
      */
-    private static void runGenerateIfChangedMode(String configPath) throws Exception {
+    private static void runGenerateIfChangedMode(String configPath, String strategyPath) throws Exception {
         System.out.println("\n=== GENERATE IF CHANGED MODE ===");
-        System.out.println("Changes detected - proceeding with full model generation");
-        C4ModelGenerator.main(new String[]{});
-        System.out.println("No changes detected - skipping full model generation");
-    }
-
-
 
+        if (scanAndGenerateIfChanged(configPath, strategyPath) != null) {
+            System.out.println(" Full model generation completed");
+        }
+    }
 
     /**
      * Serialize only mode - just serialize components without full model generation.
      */
-    private static void runSerializeOnlyMode(String configPath) throws Exception {
+    private static void runSerializeOnlyMode(String configPath, String strategyPath) throws Exception {
         System.out.println("\n=== SERIALIZE ONLY MODE ===");
 
-        Map<String, Container> containers = performQuickComponentScan(configPath);
+        Map<String, Container> containers = performQuickComponentScan(StartupLoader.start(configPath, strategyPath));
 
         if (ComponentChangeDetector.validateContainersHaveComponents(containers)) {
             ComponentSerializationService.ComponentSnapshot snapshot =
@@ -142,10 +197,10 @@ public class C4ModelGeneratorCI {
     /**
      * Baseline mode - create initial baseline snapshot.
      */
-    private static void runBaselineMode(String configPath) throws Exception {
+    private static void runBaselineMode(String configPath, String strategyPath) throws Exception {
         System.out.println("\n=== BASELINE MODE ===");
 
-        Map<String, Container> containers = performQuickComponentScan(configPath);
+        Map<String, Container> containers = performQuickComponentScan(StartupLoader.start(configPath, strategyPath));
 
         if (ComponentChangeDetector.validateContainersHaveComponents(containers)) {
             ComponentChangeDetector.createBaselineSnapshot(containers);
@@ -156,16 +211,169 @@ public class C4ModelGeneratorCI {
         }
     }
 
+    /**
+     * Pipeline mode - the whole CI run in one JVM from a single scan.
+     *
+     * <p>Configuration is loaded and validated once, the full model is built and scanned once,
+     * and the scanned containers are compared with the latest snapshot. Without a previous
+     * snapshot every component is new, so this mode also covers baseline runs.</p>
+     *
+     * Exit code 0: No changes, Exit code 1: Changes detected and model exported, Exit code 2: Error
+     */
+    private static void runPipelineMode(String configPath, String strategyPath) throws Exception {
+        System.out.println("\n=== PIPELINE MODE ===");
+
+        ComponentChangeDetector.ChangeDetection detection = scanAndGenerateIfChanged(configPath, strategyPath);
+
+        if (detection == null) {
+            System.out.println("EXIT: No changes detected - skipping model generation");
+            System.exit(0);
+        }
+
+        System.out.println(ComponentChangeDetector.generateChangeReport(detection.result));
+        System.out.println("EXIT: Changes detected - model generated and snapshot updated");
+        System.exit(1);
+    }
+
+    /**
+     * Watch mode - builds the model once, then updates the export and snapshot on every change
+     * to the configuration or to the scanned class directories. Runs until interrupted.
+     */
+    private static void runWatchMode(String configPath, String strategyPath) throws Exception {
+        new WorkspaceWatcher(new ModelPipeline(configPath, strategyPath)).run();
+    }
+
+    /**
+     * Server mode - keeps the model warm in memory and serves it over local HTTP.
+     * The port is taken from the {@value ModelServer#PORT_PROPERTY} system property (default 8080).
+     */
+    private static void runServerMode(String configPath, String strategyPath) throws Exception {
+        new ModelServer(new ModelPipeline(configPath, strategyPath)).start();
+    }
+
+    /**
+     * Batch mode - scans every repository of a manifest in this JVM.
+     * Exit code 0: No changes, Exit code 1: At least one repository changed, Exit code 2: At least one failed
+     */
+    private static void runBatchMode(String manifestPath) throws Exception {
+        if (manifestPath == null) {
+            System.err.println("batch requires the path of a batch manifest");
+            printUsage();
+            System.exit(2);
+        }
+
+        List<BatchRunner.RepositoryResult> results = BatchRunner.run(manifestPath);
+
+        if (results.stream().anyMatch(result -> result.status == BatchRunner.Status.FAILED)) {
+            System.exit(2);
+        }
+        System.exit(results.stream().anyMatch(result -> result.status == BatchRunner.Status.CHANGED) ? 1 : 0);
+    }
+
+    /**
+     * Builds and scans the full model once, then creates views and exports the workspace
+     * only if the component content hash differs from the latest snapshot.
+     *
+     * <p>The snapshot is written last, so a failed export is retried on the next run instead
+     * of being masked as "no changes".</p>
+     *
+     * @return The change detection if the model was generated, null if nothing changed
+     */
+    private static ComponentChangeDetector.ChangeDetection scanAndGenerateIfChanged(
+            String configPath, String strategyPath) throws Exception {
+        StartupLoader startup = StartupLoader.start(configPath, strategyPath, ComponentSerializationService.COMPONENTS_DIR);
+        String fingerprint = startup.fingerprint();
+        if (InputFingerprint.matchesStored(ComponentSerializationService.COMPONENTS_DIR, fingerprint)) {
+            System.out.println("Input fingerprint unchanged: " + fingerprint);
+            System.out.println("No changes detected - skipping full model generation");
+            return null;
+        }
+
+        ModelPipeline pipeline = new ModelPipeline(configPath, strategyPath);
+        pipeline.useStartup(startup);
+        pipeline.run(ModelPipeline.Stage.ENRICHMENT);
+        Map<String, Container> scannedContainers = pipeline.getScannedContainers();
+
+        if (!ComponentChangeDetector.validateContainersHaveComponents(scannedContainers)) {
+            System.err.println("EXIT: Component validation failed");
+            System.exit(2);
+        }
+
+        ComponentChangeDetector.ChangeDetection detection = ComponentChangeDetector.compareWithSnapshot(
+                scannedContainers, startup.previousSnapshot(), ComponentSerializationService.COMPONENTS_DIR);
+
+        if (!detection.contentChanged()) {
+            ComponentChangeDetector.recordSnapshot(detection);
+            InputFingerprint.store(ComponentSerializationService.COMPONENTS_DIR, fingerprint);
+            System.out.println("No changes detected - skipping full model generation");
+            return null;
+        }
+
+        System.out.println("Changes detected - proceeding with full model generation");
+        pipeline.run(ModelPipeline.Stage.EXPORT);
+
+        ComponentChangeDetector.recordSnapshot(detection);
+        InputFingerprint.store(ComponentSerializationService.COMPONENTS_DIR, fingerprint);
+        return detection;
+    }
+
+    /**
+     * History list mode - prints the snapshot manifest, oldest first.
+     */
+    private static void runHistoryListMode() throws Exception {
+        System.out.println("\n=== SNAPSHOT HISTORY ===");
+
+        SnapshotHistoryQuery history = SnapshotHistoryQuery.open(ComponentSerializationService.COMPONENTS_DIR);
+        history.entries().forEach(entry -> System.out.println(" " + entry.describe()));
+        System.out.println("Total snapshots: " + history.entries().size());
+    }
+
+    /**
+     * History diff mode - diffs two historical snapshots without rescanning.
+     * Exit code 0: No changes, Exit code 1: Changes found, Exit code 2: Error
+     */
+    private static void runHistoryDiffMode(String fromRef, String toRef) throws Exception {
+        System.out.println("\n=== HISTORY DIFF MODE ===");
+        if (fromRef == null) {
+            System.err.println("history-diff requires a snapshot reference to compare from");
+            printUsage();
+            System.exit(2);
+        }
+
+        SnapshotHistoryQuery history = SnapshotHistoryQuery.open(ComponentSerializationService.COMPONENTS_DIR);
+        ComponentSerializationService.ComponentComparisonResult result =
+                history.diff(fromRef, toRef).toComparisonResult();
+
+        System.out.println(ComponentChangeDetector.generateChangeReport(result));
+        System.exit(result.hasChanges ? 1 : 0);
+    }
+
+    /**
+     * History label mode - attaches a label to a historical snapshot.
+     */
+    private static void runHistoryLabelMode(String ref, String label) throws Exception {
+        System.out.println("\n=== HISTORY LABEL MODE ===");
+        if (ref == null || label == null) {
+            System.err.println("history-label requires a snapshot reference and a label");
+            printUsage();
+            System.exit(2);
+        }
+
+        SnapshotManifest.Entry entry = SnapshotHistoryQuery.open(ComponentSerializationService.COMPONENTS_DIR)
+                .label(ref, label);
+        System.out.println(" Labelled snapshot: " + entry.describe());
+    }
+
     /**
      * Performs a quick component scan without full model generation.
      * This is optimized for CI/CD scenarios where we only need component information.
+     * Both configuration files are taken from the already running startup.
      */
-    private static Map<String, Container> performQuickComponentScan(String configPath) throws Exception {
+    private static Map<String, Container> performQuickComponentScan(StartupLoader startup) throws Exception {
         System.out.println("Performing quick component scan...");
 
         // Load configuration
-        File c4ConfigJson = new File(configPath);
-        C4ModelConfigDetail c4Config = C4ModelConfigDetail.loadFromFile(c4ConfigJson, true);
+        C4ModelConfigDetail c4Config = startup.c4Config();
 
         // Create minimal model structure for scanning
         com.structurizr.Workspace workspace = new com.structurizr.Workspace("CI-Scan", "Quick scan for CI/CD");
@@ -196,25 +404,12 @@ public class C4ModelGeneratorCI {
         }
 
         // Load strategy configuration and scan components
-        File strategyConfigJson = new File("src/main/java/org/example/json/strategyConfig.json");
-        StrategyConfiguration strategyConfig = StrategyConfiguration.loadFromFile(strategyConfigJson);
+        StrategyConfiguration strategyConfig = startup.strategyConfig();
         ConfigurableComponentScanner scanner = new ConfigurableComponentScanner(strategyConfig);
+        Map<String, String> containerKeys = startup.containerKeys();
 
-        // Build component maps (same as main generator)
+        // Component maps are built per scanned container; includes of other containers are never read
         Map<String, ContainerDetail> allContainers = c4Config.getContainerMap();
-        Map<String, Map<String, ComponentDetail>> containerComponentMaps = new HashMap<>();
-
-        for (Map.Entry<String, ContainerDetail> entry : allContainers.entrySet()) {
-            String containerKey = entry.getKey();
-            ContainerDetail containerDetail = entry.getValue();
-
-            if (containerDetail != null) {
-                Map<String, ComponentDetail> componentMap = containerDetail.getComponentMap();
-                containerComponentMaps.put(containerKey, componentMap);
-                System.out.println(" " + containerKey + " component config loaded: " +
-                        (componentMap != null ? componentMap.size() : 0) + " components");
-            }
-        }
 
         // Get containers for scanning (same approach as main generator)
         Map<String, Container> containersForScanning = new HashMap<>();
@@ -228,18 +423,25 @@ public class C4ModelGeneratorCI {
             }
         }
 
+        // Component includes of the scanned containers are read and validated in parallel
+        c4Config.loadIncludes(containersForScanning.keySet().stream().map(containerKeys::get).toList());
+
         for (Map.Entry<String, Container> entry : containersForScanning.entrySet()) {
             String containerName = entry.getKey();
             Container container = entry.getValue();
 
             // Find corresponding container key in the component configuration
-            String containerKey = findContainerKeyInConfig(containerName, allContainers);
-            Map<String, ComponentDetail> componentMap = containerComponentMaps.get(containerKey);
+            String containerKey = containerKeys.get(containerName);
+            ContainerDetail containerDetail = containerKey != null ? allContainers.get(containerKey) : null;
+            ComponentIndex componentIndex = containerDetail != null ? containerDetail.getComponentIndex() : null;
+            if (componentIndex != null) {
+                System.out.println(" " + containerKey + " component config loaded: " + componentIndex.size() + " components");
+            }
 
             System.out.println("Scanning container: " + container.getName() +
                     " (config key: " + containerKey + ")");
 
-            scanner.scanContainer(container, containerKey, componentMap);
+            scanner.scanContainer(container, containerKey, componentIndex);
             System.out.println(" Completed scanning: " + container.getName() +
                     " (" + container.getComponents().size() + " components)");
         }
@@ -248,93 +450,25 @@ public class C4ModelGeneratorCI {
         return containersForScanning;
     }
 
-    /**
-     * Helper method to find container key in configuration.
-     * Uses multiple fallback strategies to map container names to configuration keys.
-     */
-    private static String findContainerKeyInConfig(String containerName, Map<String, ContainerDetail> allContainers) {
-        if (containerName == null || allContainers == null || allContainers.isEmpty()) {
-            return null;
-        }
-
-        String normalizedContainerName = containerName.toLowerCase().trim();
-
-        // Strategy 1: Exact match (case-insensitive)
-        for (String key : allContainers.keySet()) {
-            if (key.toLowerCase().trim().equals(normalizedContainerName)) {
-                System.out.println(" Found exact match: " + containerName + " -> " + key);
-                return key;
-            }
-        }
-
-        // Strategy 2: Exact match without spaces and special characters
-        String cleanContainerName = normalizedContainerName.replaceAll("[\\s\\-_]", "");
-        for (String key : allContainers.keySet()) {
-            String cleanKey = key.toLowerCase().replaceAll("[\\s\\-_]", "");
-            if (cleanKey.equals(cleanContainerName)) {
-                System.out.println(" Found normalized match: " + containerName + " -> " + key);
-                return key;
-            }
-        }
-
-        // Strategy 3: Key contains container name (without spaces)
-        for (String key : allContainers.keySet()) {
-            String cleanKey = key.toLowerCase().replaceAll("[\\s\\-_]", "");
-            if (cleanKey.contains(cleanContainerName)) {
-                System.out.println(" Found key containing container name: " + containerName + " -> " + key);
-                return key;
-            }
-        }
-
-        // Strategy 4: Container name contains key (without spaces)
-        for (String key : allContainers.keySet()) {
-            String cleanKey = key.toLowerCase().replaceAll("[\\s\\-_]", "");
-            if (cleanContainerName.contains(cleanKey)) {
-                System.out.println(" Found container name containing key: " + containerName + " -> " + key);
-                return key;
-            }
-        }
-
-        // Strategy 5: Partial word matching (split by spaces/dashes/underscores)
-        String[] containerWords = normalizedContainerName.split("[\\s\\-_]+");
-        for (String key : allContainers.keySet()) {
-            String[] keyWords = key.toLowerCase().split("[\\s\\-_]+");
-
-            // Check if any container word matches any key word
-            for (String containerWord : containerWords) {
-                for (String keyWord : keyWords) {
-                    if (containerWord.equals(keyWord) && containerWord.length() > 2) { // Avoid matching very short words
-                        System.out.println(" Found word match: " + containerName + " -> " + key + " (matched word: " + containerWord + ")");
-                        return key;
-                    }
-                }
-            }
-        }
-
-        // Strategy 6: Fuzzy matching - check if key is a substring of container name or vice versa
-        for (String key : allContainers.keySet()) {
-            String cleanKey = key.toLowerCase().replaceAll("[\\s\\-_]", "");
-            if (cleanKey.length() > 3 && (cleanContainerName.contains(cleanKey) || cleanKey.contains(cleanContainerName))) {
-                System.out.println(" Found fuzzy match: " + containerName + " -> " + key);
-                return key;
-            }
-        }
-
-        System.out.println(" Warning: No configuration key found for container: " + containerName);
-        System.out.println("Available keys: " + allContainers.keySet());
-        return null;
-    }
-
     /**
      * Prints usage information for the CI/CD runner.
      */
     private static void printUsage() {
-        System.out.println("\nUsage: java C4ModelGeneratorCI <mode> [config-path]");
+        System.out.println("\nUsage: java C4ModelGeneratorCI <mode> [config-path] [strategy-config-path]");
         System.out.println("\nModes:");
         System.out.println("  change-detect      - Detect changes and exit with code 1 if found");
-        System.out.println("  generate-if-changed - Full generation only if changes detected");
+        System.out.println("  generate-if-changed - Full generation only if changes detected (instead of change-detect)");
         System.out.println("  serialize-only     - Only serialize components");
         System.out.println("  baseline          - Create initial baseline snapshot");
-        System.out.println("\nConfig path defaults to: src/main/java/org/example/json/c4ModelConfig.json");
+        System.out.println("  pipeline          - Scan once; generate, export and snapshot only if changed (exit 1)");
+        System.out.println("  watch             - Re-export on every recompile or config change (runs until stopped)");
+        System.out.println("  server            - Serve /rescan, /workspace, /changes, /diff on -Dc4.server.port (default 8080)");
+        System.out.println("  batch <manifest>  - Scan all repositories of a batch manifest concurrently");
+        System.out.println("  history-list      - List recorded snapshots");
+        System.out.println("  history-diff <from> [to] - Diff two snapshots (to defaults to latest)");
+        System.out.println("  history-label <ref> <label> - Label a snapshot, e.g. release-4.2");
+        System.out.println("\nSnapshot references: latest, a label, a content hash prefix or a timestamp");
+        System.out.println("\nConfig path defaults to: " + C4ModelGenerator.DEFAULT_CONFIG_PATH);
+        System.out.println("Strategy config path defaults to: " + C4ModelGenerator.DEFAULT_STRATEGY_CONFIG_PATH);
     }
 }
@@ -0,0 +1,261 @@
+package org.example.c4;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.CustomElement;
+import com.structurizr.model.Element;
+import com.structurizr.model.Relationship;
+import com.structurizr.view.ComponentView;
+import com.structurizr.view.CustomView;
+import com.structurizr.view.ViewSet;
+import org.example.model.ComponentIndex;
+import org.example.service.ConfigurableComponentScanner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits the component view of a container with many components into several bounded views.
+ *
+ * <p>Layout and rendering time grow faster than the number of elements in a view, so a container
+ * with more than {@value #MAX_COMPONENTS_PROPERTY} components gets no single component view.
+ * Its components are grouped by package, tag or discovering strategy
+ * ({@value #PARTITION_PROPERTY}); consecutive groups are packed into views of at most that many
+ * components, and groups that are larger on their own are split. An additional overview shows
+ * one element per package and the dependencies between the packages, aggregated from the component
+ * relationships. The overview is always package-level, whatever {@value #PARTITION_PROPERTY}
+ * says, so it keeps the same shape when the split views are partitioned differently.</p>
+ *
+ * <p>Overview elements are custom elements outside of the container, so they neither appear in
+ * component snapshots nor change the component content hash.</p>
+ */
+public class ComponentViewPartitioner {
+
+    /** Largest number of components per component view; 0 (the default) never splits */
+    public static final String MAX_COMPONENTS_PROPERTY = "c4.views.maxComponents";
+    /** How components are grouped when a view is split: package (default), tag or strategy */
+    public static final String PARTITION_PROPERTY = "c4.views.partitionBy";
+
+    /** Tags every component has, which therefore do not partition anything */
+    private static final List<String> DEFAULT_TAGS = List.of("Element", "Component");
+
+    /**
+     * Criterion that assigns a component to a group.
+     */
+    public enum PartitionBy {
+        /** Package of the class the component was found from */
+        PACKAGE("Package"),
+        /** First tag after the default Element and Component tags */
+        TAG("Tag"),
+        /** Strategy that discovered the component */
+        STRATEGY("Strategy");
+
+        /** Shown as the type of the overview elements */
+        public final String label;
+
+        PartitionBy(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Resolves the criterion from the {@value #PARTITION_PROPERTY} system property, defaulting to PACKAGE.
+         */
+        public static PartitionBy current() {
+            String value = System.getProperty(PARTITION_PROPERTY, "package").trim();
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown value '" + value + "' of " + PARTITION_PROPERTY +
+                        " (supported: package, tag, strategy)");
+            }
+        }
+    }
+
+    /**
+     * @return The configured {@value #MAX_COMPONENTS_PROPERTY}, or 0 if component views are never split
+     */
+    public static int maxComponents() {
+        return Math.max(0, Integer.getInteger(MAX_COMPONENTS_PROPERTY, 0));
+    }
+
+    /**
+     * @param container     A container with components
+     * @param maxComponents The configured maximum, 0 for none
+     * @return true if the container has too many components for a single view
+     */
+    public static boolean needsSplit(Container container, int maxComponents) {
+        return maxComponents > 0 && container.getComponents().size() > maxComponents;
+    }
+
+    /**
+     * Creates the bounded component views and the group overview of one container.
+     *
+     * @param views         The workspace view set
+     * @param container     The container whose components are split
+     * @param containerName Name of the container as configured
+     * @param viewKey       Key of the single view that is replaced; used as prefix of the new keys
+     * @param maxComponents Largest number of components per view
+     * @param partitionBy   How components are grouped
+     * @return Number of component views created, not counting the overview
+     */
+    public static int split(ViewSet views, Container container, String containerName, String viewKey,
+                            int maxComponents, PartitionBy partitionBy) {
+        Map<String, List<Component>> groups = group(container, partitionBy);
+
+        List<Partition<Component>> partitions = pack(groups, maxComponents);
+        for (int i = 0; i < partitions.size(); i++) {
+            Partition<Component> partition = partitions.get(i);
+            String description = containerName + " Components (" + (i + 1) + "/" + partitions.size() + "): " + partition.label();
+
+            ComponentView componentView = views.createComponentView(container, viewKey + "-" + (i + 1), description);
+            for (Component component : partition.components) {
+                componentView.add(component);
+            }
+        }
+
+        createOverview(views, container, containerName, viewKey);
+        System.out.println(" Component view for " + container.getName() + " split by " +
+                partitionBy.label.toLowerCase(Locale.ROOT) + " into " + partitions.size() + " views of at most " +
+                maxComponents + " components (" + container.getComponents().size() + " components, " +
+                groups.size() + " groups)");
+        return partitions.size();
+    }
+
+    /**
+     * Components and group names of one split view.
+     */
+    public static class Partition<T> {
+        public final List<T> components = new ArrayList<>();
+        public final List<String> groups = new ArrayList<>();
+        /** "part i/n" of a group that was too large for one view, otherwise null */
+        public String part;
+
+        public String label() {
+            String label = groups.size() == 1 ? groups.get(0) : groups.get(0) + " .. " + groups.get(groups.size() - 1);
+            return part != null ? label + " (part " + part + ")" : label;
+        }
+    }
+
+    /**
+     * Packs consecutive groups into partitions of at most {@code max} components, splitting
+     * groups that do not fit into one partition on their own.
+     *
+     * @param groups Members per group, in the order the groups are packed
+     * @param max    Largest number of members per partition, at least 1
+     * @return The partitions; every member is in exactly one of them
+     */
+    public static <T> List<Partition<T>> pack(Map<String, List<T>> groups, int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("At least one component per view is required, got " + max);
+        }
+        List<Partition<T>> partitions = new ArrayList<>();
+        Partition<T> current = null;
+        for (Map.Entry<String, List<T>> group : groups.entrySet()) {
+            List<T> members = group.getValue();
+            if (members.size() > max) {
+                int parts = (members.size() + max - 1) / max;
+                for (int part = 0; part < parts; part++) {
+                    Partition<T> partition = new Partition<>();
+                    partition.groups.add(group.getKey());
+                    partition.components.addAll(members.subList(part * max, Math.min(members.size(), (part + 1) * max)));
+                    partition.part = (part + 1) + "/" + parts;
+                    partitions.add(partition);
+                }
+                current = null;
+                continue;
+            }
+            if (current == null || current.components.size() + members.size() > max) {
+                current = new Partition<>();
+                partitions.add(current);
+            }
+            current.groups.add(group.getKey());
+            current.components.addAll(members);
+        }
+        return partitions;
+    }
+
+    /**
+     * Groups the components of a container, sorted by group and by component name within a group.
+     */
+    private static Map<String, List<Component>> group(Container container, PartitionBy partitionBy) {
+        Map<String, List<Component>> groups = new TreeMap<>();
+        for (Component component : container.getComponents()) {
+            groups.computeIfAbsent(groupOf(component, partitionBy), key -> new ArrayList<>()).add(component);
+        }
+        for (List<Component> members : groups.values()) {
+            members.sort(Comparator.comparing(Component::getName));
+        }
+        return groups;
+    }
+
+    /**
+     * Creates a view with one element per package and the dependencies between the packages.
+     */
+    private static void createOverview(ViewSet views, Container container, String containerName, String viewKey) {
+        Map<String, List<Component>> groups = group(container, PartitionBy.PACKAGE);
+        Map<String, CustomElement> groupElements = new LinkedHashMap<>();
+        Map<Component, String> groupOfComponent = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Component>> group : groups.entrySet()) {
+            // Custom element names are unique across the model, so they carry the container name
+            groupElements.put(group.getKey(), container.getModel().addCustomElement(
+                    containerName + " / " + group.getKey(), PartitionBy.PACKAGE.label,
+                    group.getValue().size() + " components"));
+            for (Component component : group.getValue()) {
+                groupOfComponent.put(component, group.getKey());
+            }
+        }
+
+        Map<String, Map<String, Integer>> dependencies = new TreeMap<>();
+        for (Map.Entry<Component, String> entry : groupOfComponent.entrySet()) {
+            for (Relationship relationship : entry.getKey().getRelationships()) {
+                Element destination = relationship.getDestination();
+                String destinationGroup = destination instanceof Component ? groupOfComponent.get(destination) : null;
+                if (destinationGroup != null && !destinationGroup.equals(entry.getValue())) {
+                    dependencies.computeIfAbsent(entry.getValue(), key -> new TreeMap<>())
+                            .merge(destinationGroup, 1, Integer::sum);
+                }
+            }
+        }
+        dependencies.forEach((source, destinations) -> destinations.forEach((destination, count) ->
+                groupElements.get(source).uses(groupElements.get(destination),
+                        count + (count == 1 ? " dependency" : " dependencies"))));
+
+        CustomView overview = views.createCustomView(viewKey + "-overview",
+                containerName + " Components by " + PartitionBy.PACKAGE.label,
+                "Overview of the " + container.getComponents().size() + " components of " + containerName);
+        groupElements.values().forEach(overview::add);
+    }
+
+    /**
+     * @return The group of a component; components without the grouping information share one group
+     */
+    static String groupOf(Component component, PartitionBy partitionBy) {
+        switch (partitionBy) {
+            case PACKAGE: {
+                String type = component.getProperties().get(ComponentIndex.TYPE_PROPERTY);
+                if (type == null) {
+                    return "(unknown package)";
+                }
+                int lastDot = type.lastIndexOf('.');
+                return lastDot > 0 ? type.substring(0, lastDot) : "(default package)";
+            }
+            case TAG: {
+                for (String tag : component.getTagsAsSet()) {
+                    if (!DEFAULT_TAGS.contains(tag)) {
+                        return tag;
+                    }
+                }
+                return "(untagged)";
+            }
+            default: {
+                String strategy = component.getProperties().get(ConfigurableComponentScanner.STRATEGY_PROPERTY);
+                return strategy != null ? strategy : "(unknown strategy)";
+            }
+        }
+    }
+}
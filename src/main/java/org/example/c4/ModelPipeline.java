@@ -0,0 +1,374 @@
+package org.example.c4;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Container;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
+import org.example.config.StrategyConfiguration;
+import org.example.model.C4ModelConfigDetail;
+import org.example.model.ComponentIndex;
+import org.example.model.ContainerConfigDetail;
+import org.example.model.ContainerDetail;
+import org.example.service.ComponentSerializationService;
+import org.example.service.ConfigurableComponentScanner;
+import org.example.service.SharedScanCache;
+import org.example.service.WorkspaceExporter;
+
+/**
+ * Staged, reusable C4 model builder.
+ *
+ * <p>Model construction is split into the stages of {@link Stage}. A pipeline instance keeps the
+ * output of each stage, so repeated calls to {@link #run(Stage)} only execute stages that have not
+ * run yet or were invalidated. This lets long-running tools regenerate the model without paying
+ * the cold path (configuration parsing, schema validation, class scanning) every time.</p>
+ *
+ * <p>The expensive stages are cached independently of the workspace:</p>
+ * <ul>
+ *   <li><strong>CONFIG</strong> - the validated C4 configuration and strategy configuration</li>
+ *   <li><strong>SCAN</strong> - the discovered components of each container, before enrichment</li>
+ * </ul>
+ *
+ * <p>Structurizr elements cannot be removed from a workspace, so invalidating any stage up to
+ * {@link Stage#STYLES} discards the workspace. The next run rebuilds it in memory from the cached
+ * configuration and replays the cached scan results; only invalidated containers are scanned again.</p>
+ *
+ * <pre>
+ * ModelPipeline pipeline = new ModelPipeline(configPath, strategyConfigPath);
+ * pipeline.run(ModelPipeline.Stage.EXPORT);
+ * pipeline.invalidateContainer("Connector Implementations");
+ * pipeline.run(ModelPipeline.Stage.EXPORT);   // rescans one container only
+ * </pre>
+ */
+public class ModelPipeline {
+
+    /**
+     * Model building stages in execution order.
+     */
+    public enum Stage {
+        CONFIG,
+        ELEMENTS,
+        RELATIONSHIPS,
+        SCAN,
+        ENRICHMENT,
+        VIEWS,
+        STYLES,
+        EXPORT
+    }
+
+    private final String configPath;
+    private final String strategyConfigPath;
+    private final String exportPath;
+
+    private C4ModelConfigDetail c4Config;
+    private StrategyConfiguration strategyConfig;
+    private ConfigurableComponentScanner scanner;
+    /** Component configuration key per configured container name, resolved once per CONFIG stage */
+    private Map<String, String> containerKeys;
+
+    private Workspace workspace;
+    private final Map<String, Person> persons = new HashMap<>();
+    private final Map<String, SoftwareSystem> softwareSystems = new HashMap<>();
+    private final Map<String, Container> containers = new HashMap<>();
+    private final Map<String, Container> scannedContainers = new LinkedHashMap<>();
+
+    /** Discovered components per container name, as produced by the SCAN stage before enrichment */
+    private final Map<String, ComponentSerializationService.ContainerSnapshot> scanCache = new HashMap<>();
+
+    /** Already running startup to take the configuration from on the next CONFIG stage */
+    private StartupLoader startup;
+
+    /** Optional scan results shared with the pipelines of other repositories */
+    private SharedScanCache sharedScanCache;
+
+    private final EnumSet<Stage> completed = EnumSet.noneOf(Stage.class);
+
+    public ModelPipeline(String configPath, String strategyConfigPath) {
+        this(configPath, strategyConfigPath, WorkspaceExporter.defaultExportPath());
+    }
+
+    public ModelPipeline(String configPath, String strategyConfigPath, String exportPath) {
+        this.configPath = configPath;
+        this.strategyConfigPath = strategyConfigPath;
+        this.exportPath = exportPath;
+    }
+
+    /**
+     * Runs all stages up to and including {@code target}, skipping stages whose output is still valid.
+     *
+     * @param target The last stage to run
+     * @return The workspace, or null if only {@link Stage#CONFIG} was requested
+     * @throws Exception if configuration loading, scanning or export fails
+     */
+    public Workspace run(Stage target) throws Exception {
+        for (Stage stage : Stage.values()) {
+            if (stage.compareTo(target) > 0) {
+                break;
+            }
+            if (!completed.contains(stage)) {
+                runStage(stage);
+                completed.add(stage);
+            }
+        }
+        return workspace;
+    }
+
+    /**
+     * Marks a stage and all following stages as stale.
+     *
+     * <p>Invalidating {@link Stage#CONFIG} also drops all cached scan results, because the strategies
+     * may have changed. Invalidating {@link Stage#SCAN} rescans every container. Invalidating any other
+     * stage keeps the caches and only rebuilds the workspace from them.</p>
+     *
+     * @param stage The first stage to re-run
+     */
+    public void invalidate(Stage stage) {
+        if (stage == Stage.CONFIG || stage == Stage.SCAN) {
+            scanCache.clear();
+        }
+        if (stage == Stage.EXPORT) {
+            completed.remove(Stage.EXPORT);
+            return;
+        }
+
+        // A workspace cannot be partially rolled back, so every stage after CONFIG is rebuilt from the caches
+        workspace = null;
+        completed.retainAll(stage == Stage.CONFIG ? EnumSet.noneOf(Stage.class) : EnumSet.of(Stage.CONFIG));
+    }
+
+    /**
+     * Drops the cached scan result of one container, so the next run scans only that container
+     * and replays the cached results of all others.
+     *
+     * @param containerName Name of the container as configured in the C4 configuration
+     */
+    public void invalidateContainer(String containerName) {
+        scanCache.remove(containerName);
+        invalidate(Stage.ELEMENTS);
+    }
+
+    /**
+     * Shares scan results with other pipelines, so class directories used by several
+     * repositories are scanned only once.
+     *
+     * @param sharedScanCache The cache to share, or null to scan independently
+     */
+    public void setSharedScanCache(SharedScanCache sharedScanCache) {
+        this.sharedScanCache = sharedScanCache;
+    }
+
+    /**
+     * Takes the configuration of the next {@link Stage#CONFIG} run from a startup that is already
+     * loading it, instead of starting a new one. Later configuration reloads read the files again.
+     *
+     * @param startup The running startup for this pipeline's configuration paths
+     */
+    public void useStartup(StartupLoader startup) {
+        this.startup = startup;
+    }
+
+    /**
+     * @return true if the stage has run and its output is still valid
+     */
+    public boolean isCompleted(Stage stage) {
+        return completed.contains(stage);
+    }
+
+    public C4ModelConfigDetail getConfig() {
+        return c4Config;
+    }
+
+    public StrategyConfiguration getStrategyConfig() {
+        return strategyConfig;
+    }
+
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    public Map<String, SoftwareSystem> getSoftwareSystems() {
+        return softwareSystems;
+    }
+
+    /**
+     * @return Scanned containers keyed by configured container name, valid after {@link Stage#SCAN}
+     */
+    public Map<String, Container> getScannedContainers() {
+        return scannedContainers;
+    }
+
+    public String getConfigPath() {
+        return configPath;
+    }
+
+    public String getStrategyConfigPath() {
+        return strategyConfigPath;
+    }
+
+    public String getExportPath() {
+        return exportPath;
+    }
+
+    /**
+     * Resolves the class directory scanned for each configured container. Valid after {@link Stage#CONFIG}.
+     *
+     * @return Base path per configured container name; containers without a base path are omitted
+     */
+    public Map<String, File> getContainerBasePaths() {
+        Map<String, File> basePaths = new LinkedHashMap<>();
+
+        for (ContainerConfigDetail containerConfig : c4Config.getContainers()) {
+            String containerKey = containerKeys.get(containerConfig.getName());
+            String basePath = containerKey != null ? strategyConfig.getGlobalConfig().getBasePath(containerKey) : null;
+            if (basePath != null) {
+                basePaths.put(containerConfig.getName(), new File(basePath));
+            }
+        }
+        return basePaths;
+    }
+
+    private void runStage(Stage stage) throws Exception {
+        switch (stage) {
+            case CONFIG:
+                loadConfig();
+                break;
+            case ELEMENTS:
+                persons.clear();
+                softwareSystems.clear();
+                containers.clear();
+                scannedContainers.clear();
+                workspace = C4ModelGenerator.createElements(c4Config, persons, softwareSystems, containers);
+                break;
+            case RELATIONSHIPS:
+                C4ModelGenerator.establishRelationships(c4Config, persons, softwareSystems, containers);
+                break;
+            case SCAN:
+                scanContainers();
+                break;
+            case ENRICHMENT:
+                enrichContainers();
+                break;
+            case VIEWS:
+                C4ModelGenerator.createViews(workspace.getViews(), softwareSystems, scannedContainers);
+                break;
+            case STYLES:
+                C4ModelGenerator.applyStyles(workspace.getViews());
+                break;
+            case EXPORT:
+                C4ModelGenerator.exportWorkspace(workspace, exportPath);
+                break;
+        }
+    }
+
+    private void loadConfig() throws Exception {
+        // Both files are loaded concurrently; the C4 configuration is joined first to keep the log order
+        StartupLoader loading = startup != null ? startup : StartupLoader.start(configPath, strategyConfigPath);
+        startup = null;
+
+        File c4ConfigJson = new File(configPath);
+        System.out.println("Loading C4 configuration from: " + c4ConfigJson.getAbsolutePath());
+        c4Config = loading.c4Config();
+        System.out.println(" C4 configuration loaded and validated successfully");
+
+        System.out.println("\n=== LOADING STRATEGY CONFIGURATION ===");
+        File strategyConfigJson = new File(strategyConfigPath);
+        strategyConfig = loading.strategyConfig();
+        scanner = new ConfigurableComponentScanner(strategyConfig);
+        containerKeys = loading.containerKeys();
+        System.out.println(" Strategy configuration loaded from: " + strategyConfigJson.getAbsolutePath());
+        if (loading.fromCache()) {
+            System.out.println(" Configuration taken from the config cache (parsing and validation skipped)");
+        }
+    }
+
+    /**
+     * Scans containers without a cached result and replays the cached result into all others.
+     */
+    private void scanContainers() {
+        System.out.println("\n=== SCANNING CONTAINERS FOR COMPONENTS ===");
+        int replayed = 0;
+
+        for (ContainerConfigDetail containerConfig : c4Config.getContainers()) {
+            String containerName = containerConfig.getName();
+            Container container = containers.get(containerName);
+            if (container == null) {
+                System.out.println("- " + containerName + ":  (not found)");
+                continue;
+            }
+            scannedContainers.put(containerName, container);
+
+            ComponentSerializationService.ContainerSnapshot cached = scanCache.get(containerName);
+            if (cached != null) {
+                ComponentSerializationService.restoreComponents(container, cached);
+                replayed++;
+                continue;
+            }
+
+            String containerKey = containerKeys.get(containerName);
+            String sharedKey = sharedScanCache != null && containerKey != null
+                    ? SharedScanCache.keyFor(strategyConfig, containerKey)
+                    : null;
+
+            if (sharedKey == null) {
+                scanCache.put(containerName, discover(container, containerKey));
+                continue;
+            }
+
+            boolean[] scannedHere = {false};
+            ComponentSerializationService.ContainerSnapshot shared = sharedScanCache.get(sharedKey, () -> {
+                scannedHere[0] = true;
+                return discover(container, containerKey);
+            });
+            if (!scannedHere[0]) {
+                ComponentSerializationService.restoreComponents(container, shared);
+                System.out.println(" Reused shared scan result for: " + container.getName() +
+                        " (" + container.getComponents().size() + " components)");
+            }
+            scanCache.put(containerName, shared);
+        }
+
+        if (replayed > 0) {
+            System.out.println(" Reused cached scan results for " + replayed + " containers");
+        }
+    }
+
+    /**
+     * Scans one container with its configured strategies and returns the serialized result.
+     */
+    private ComponentSerializationService.ContainerSnapshot discover(Container container, String containerKey) {
+        System.out.println("Scanning container: " + container.getName() +
+                " (config key: " + containerKey + ")");
+        scanner.discoverComponents(container, containerKey);
+        System.out.println(" Completed scanning: " + container.getName() +
+                " (" + container.getComponents().size() + " components)");
+        return ComponentSerializationService.serializeContainer(container);
+    }
+
+    /**
+     * Applies technology, tags, descriptions and relationships from the component maps in the configuration.
+     */
+    private void enrichContainers() throws IOException {
+        System.out.println("\n=== ENRICHING COMPONENTS ===");
+        Map<String, ContainerDetail> allContainers = c4Config.getContainerMap();
+        // Only the includes of scanned containers are loaded, validated in parallel
+        c4Config.loadIncludes(scannedContainers.keySet().stream().map(containerKeys::get).toList());
+
+        for (Map.Entry<String, Container> entry : scannedContainers.entrySet()) {
+            String containerKey = containerKeys.get(entry.getKey());
+            ContainerDetail containerDetail = containerKey != null ? allContainers.get(containerKey) : null;
+            if (containerDetail == null) {
+                continue;
+            }
+
+            ComponentIndex componentIndex = containerDetail.getComponentIndex();
+            C4ModelGenerator.assignRealtionFromJson(entry.getValue(), componentIndex);
+            System.out.println(" " + containerKey + " enriched from " + componentIndex.size() + " configured components");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.c4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.structurizr.io.json.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.service.ComponentChangeDetector;
+import org.example.service.ComponentSerializationService;
+import org.example.service.SnapshotHistoryQuery;
+
+/**
+ * Local HTTP server that keeps a {@link ModelPipeline} warm between requests.
+ *
+ * <p>The configuration, the per-container scan cache, the workspace, the latest component
+ * snapshot, the snapshot history and the result of the last change detection stay in memory, so
+ * requests are answered without JVM startup, a cold scan or rereading files. The workspace JSON
+ * is serialized on the first {@code GET /workspace} after a build rather than on every rebuild.</p>
+ *
+ * <p>Endpoints:</p>
+ * <ul>
+ *   <li><strong>POST /rescan</strong> - rescan all containers, or one with {@code ?container=name};
+ *       {@code ?config=true} also reloads the configuration files. Returns the change report</li>
+ *   <li><strong>GET /workspace</strong> - the current workspace as Structurizr JSON</li>
+ *   <li><strong>GET /changes</strong> - the change report of the last build</li>
+ *   <li><strong>GET /diff?from=ref&amp;to=ref</strong> - diff two historical snapshots
+ *       (references as in {@link SnapshotHistoryQuery}; {@code to} defaults to latest)</li>
+ * </ul>
+ *
+ * <p>Rebuilds are serialized; reads are served from the last completed build.</p>
+ */
+public class ModelServer {
+
+    /** System property selecting the listening port */
+    public static final String PORT_PROPERTY = "c4.server.port";
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int WORKER_THREADS = 4;
+
+    private final ModelPipeline pipeline;
+    private final Object buildLock = new Object();
+
+    /** Serialized workspace of the last build; null until the first request after a build */
+    private volatile String workspaceJson;
+    private volatile String changeReport = "No build yet.";
+    /** Snapshot recorded by the last build; read from disk once before the first build */
+    private ComponentSerializationService.ComponentSnapshot latestSnapshot;
+    /** Snapshot history as of the last build */
+    private volatile SnapshotHistoryQuery history;
+
+    public ModelServer(ModelPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Builds the model once, then starts serving on the configured port. The server keeps
+     * running in its worker threads after this method returns.
+     *
+     * @throws Exception if the initial build fails or the port cannot be bound
+     */
+    public void start() throws Exception {
+        int port = Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+
+        System.out.println("\n=== SERVER MODE ===");
+        rebuild();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/rescan", this::handleRescan);
+        server.createContext("/workspace", exchange -> {
+            if (requireMethod(exchange, "GET")) {
+                String json;
+                try {
+                    json = workspaceJson();
+                } catch (Exception e) {
+                    send(exchange, 500, "text/plain", "Serialization failed: " + e.getMessage());
+                    return;
+                }
+                send(exchange, 200, "application/json", json);
+            }
+        });
+        server.createContext("/changes", exchange -> {
+            if (requireMethod(exchange, "GET")) {
+                send(exchange, 200, "text/plain", changeReport);
+            }
+        });
+        server.createContext("/diff", this::handleDiff);
+        server.setExecutor(Executors.newFixedThreadPool(WORKER_THREADS));
+        server.start();
+
+        System.out.println(" Server listening on http://localhost:" + port +
+                " (POST /rescan, GET /workspace, GET /changes, GET /diff?from=&to=)");
+    }
+
+    private void handleRescan(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange);
+        try {
+            synchronized (buildLock) {
+                String container = query.get("container");
+                if (Boolean.parseBoolean(query.get("config"))) {
+                    pipeline.invalidate(ModelPipeline.Stage.CONFIG);
+                } else if (container != null) {
+                    if (pipeline.getConfig().getContainers().stream()
+                            .noneMatch(containerConfig -> container.equals(containerConfig.getName()))) {
+                        send(exchange, 404, "text/plain", "Unknown container: " + container);
+                        return;
+                    }
+                    pipeline.invalidateContainer(container);
+                } else {
+                    pipeline.invalidate(ModelPipeline.Stage.SCAN);
+                }
+                rebuild();
+            }
+            send(exchange, 200, "text/plain", changeReport);
+        } catch (Exception e) {
+            System.err.println("Rescan failed: " + e.getMessage());
+            e.printStackTrace();
+            send(exchange, 500, "text/plain", "Rescan failed: " + e.getMessage());
+        }
+    }
+
+    private void handleDiff(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange);
+        String from = query.get("from");
+        if (from == null) {
+            send(exchange, 400, "text/plain", "Missing query parameter 'from'");
+            return;
+        }
+
+        try {
+            ComponentSerializationService.ComponentComparisonResult result =
+                    history.diff(from, query.getOrDefault("to", "latest")).toComparisonResult();
+            send(exchange, 200, "text/plain", ComponentChangeDetector.generateChangeReport(result));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 404, "text/plain", e.getMessage());
+        } catch (Exception e) {
+            send(exchange, 500, "text/plain", "Diff failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the stale pipeline stages, records the snapshot and refreshes the cached responses.
+     */
+    private void rebuild() throws Exception {
+        synchronized (buildLock) {
+            long start = System.nanoTime();
+
+            pipeline.run(ModelPipeline.Stage.EXPORT);
+            workspaceJson = null;
+
+            if (latestSnapshot == null) {
+                latestSnapshot = ComponentSerializationService.loadLatestSnapshot(ComponentSerializationService.COMPONENTS_DIR);
+            }
+            ComponentChangeDetector.ChangeDetection detection = ComponentChangeDetector.compareWithSnapshot(
+                    pipeline.getScannedContainers(), latestSnapshot, ComponentSerializationService.COMPONENTS_DIR);
+            ComponentChangeDetector.recordSnapshot(detection);
+            latestSnapshot = detection.snapshot;
+            if (history == null || detection.contentChanged()) {
+                history = SnapshotHistoryQuery.open(ComponentSerializationService.COMPONENTS_DIR);
+            }
+            changeReport = ComponentChangeDetector.generateChangeReport(detection.result);
+
+            System.out.println(" Model rebuilt in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+    }
+
+    /**
+     * @return The workspace of the last build as JSON, serialized on the first call after the build
+     */
+    private String workspaceJson() throws Exception {
+        String json = workspaceJson;
+        if (json != null) {
+            return json;
+        }
+        // Rebuilds modify the workspace in place, so it is only serialized between them
+        synchronized (buildLock) {
+            if (workspaceJson == null) {
+                StringWriter writer = new StringWriter();
+                new JsonWriter(false).write(pipeline.getWorkspace(), writer);
+                workspaceJson = writer.toString();
+            }
+            return workspaceJson;
+        }
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (method.equalsIgnoreCase(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        send(exchange, 405, "text/plain", "Use " + method);
+        return false;
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.c4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.config.ConfigCache;
+import org.example.config.StrategyConfiguration;
+import org.example.model.C4ModelConfigDetail;
+import org.example.model.ContainerConfigDetail;
+import org.example.service.ComponentSerializationService;
+import org.example.service.InputFingerprint;
+
+/**
+ * Starts all independent startup I/O at once.
+ *
+ * <p>Loading and schema-validating the C4 configuration, loading the strategy configuration,
+ * loading the previous snapshot and enumerating the class files below every base path do not
+ * depend on each other, except that the class directories are only known once the strategy
+ * configuration is parsed. {@link #start} submits them together; each accessor joins only the
+ * task it needs, so a caller blocks on a file only when it actually uses its content.</p>
+ *
+ * <p>Both configurations are first looked up in the {@link ConfigCache}. On a hit, parsing and
+ * schema validation are skipped; on a miss, the validated result is cached in the background.</p>
+ *
+ * <pre>
+ * StartupLoader startup = StartupLoader.start(configPath, strategyPath, componentsDir);
+ * String fingerprint = startup.fingerprint();          // waits for the class tree only
+ * C4ModelConfigDetail c4Config = startup.c4Config();   // usually finished in the meantime
+ * </pre>
+ *
+ * <p>Failures are rethrown from the accessor of the failed task with their original type.</p>
+ */
+public class StartupLoader {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /** Startup tasks are I/O bound and must not keep the JVM alive after a failed run */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "c4-startup-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File c4ConfigFile;
+    private final File strategyConfigFile;
+
+    private final CompletableFuture<ConfigCache.ResolvedConfig> cached;
+    private final CompletableFuture<C4ModelConfigDetail> c4Config;
+    private final CompletableFuture<StrategyConfiguration> strategyConfig;
+    private final CompletableFuture<Map<String, String>> containerKeys;
+    private final CompletableFuture<ComponentSerializationService.ComponentSnapshot> previousSnapshot;
+    private final CompletableFuture<Map<Path, List<Path>>> classFiles;
+
+    private StartupLoader(String configPath, String strategyConfigPath, String componentsDir) {
+        this.c4ConfigFile = new File(configPath);
+        this.strategyConfigFile = new File(strategyConfigPath);
+
+        // Hashing three small files decides whether parsing and schema validation can be skipped
+        CompletableFuture<String> cacheKey = CompletableFuture.supplyAsync(this::cacheKey, EXECUTOR);
+        this.cached = cacheKey.thenApply(ConfigCache::load);
+
+        this.c4Config = cached.thenCompose(hit -> hit != null
+                ? CompletableFuture.completedFuture(hit.c4Config.resolveIncludes(c4ConfigFile))
+                : supply(() -> C4ModelConfigDetail.loadFromFile(c4ConfigFile, true)));
+        this.strategyConfig = cached.thenCompose(hit -> hit != null
+                ? CompletableFuture.completedFuture(hit.strategyConfig)
+                : supply(() -> StrategyConfiguration.loadFromFile(strategyConfigFile)));
+        this.containerKeys = cached.thenCompose(hit -> hit != null
+                ? CompletableFuture.completedFuture(hit.containerKeys)
+                : c4Config.thenApply(StartupLoader::resolveContainerKeys));
+
+        // On a miss, the freshly validated configuration is cached for the next run in the background
+        cached.thenAcceptBoth(cacheKey, (hit, key) -> {
+            if (hit == null && key != null) {
+                c4Config.thenAcceptBothAsync(strategyConfig, (c4, strategy) -> ConfigCache.store(key,
+                        new ConfigCache.ResolvedConfig(c4, strategy, resolveContainerKeys(c4))), EXECUTOR);
+            }
+        });
+
+        this.previousSnapshot = componentsDir != null
+                ? CompletableFuture.supplyAsync(() -> ComponentSerializationService.loadLatestSnapshot(componentsDir), EXECUTOR)
+                : CompletableFuture.completedFuture(null);
+        // The only real dependency: the class directories are configured in the strategy configuration
+        this.classFiles = strategyConfig.thenApplyAsync(StartupLoader::enumerateClassFiles, EXECUTOR);
+    }
+
+    /**
+     * Starts loading both configuration files and enumerating the class directories.
+     *
+     * @param configPath         Path of the C4 model configuration
+     * @param strategyConfigPath Path of the strategy configuration
+     * @return The running startup
+     */
+    public static StartupLoader start(String configPath, String strategyConfigPath) {
+        return new StartupLoader(configPath, strategyConfigPath, null);
+    }
+
+    /**
+     * Starts loading both configuration files, the latest snapshot of {@code componentsDir}
+     * and enumerating the class directories.
+     *
+     * @param configPath         Path of the C4 model configuration
+     * @param strategyConfigPath Path of the strategy configuration
+     * @param componentsDir      Snapshot history directory whose latest snapshot is preloaded
+     * @return The running startup
+     */
+    public static StartupLoader start(String configPath, String strategyConfigPath, String componentsDir) {
+        return new StartupLoader(configPath, strategyConfigPath, componentsDir);
+    }
+
+    /**
+     * @return The schema-validated C4 configuration
+     * @throws IOException if the file cannot be read or fails validation
+     */
+    public C4ModelConfigDetail c4Config() throws IOException {
+        return join(c4Config);
+    }
+
+    /**
+     * @return The strategy configuration
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public StrategyConfiguration strategyConfig() throws IOException {
+        return join(strategyConfig);
+    }
+
+    /**
+     * @return Component configuration key per configured container name, resolved with
+     *         {@link C4ModelGenerator#findContainerKeyInConfig}; null values mark unmapped containers
+     * @throws IOException if the C4 configuration cannot be loaded
+     */
+    public Map<String, String> containerKeys() throws IOException {
+        return join(containerKeys);
+    }
+
+    /**
+     * @return true if the configuration was taken from the {@link ConfigCache}
+     */
+    public boolean fromCache() {
+        return cached.join() != null;
+    }
+
+    /**
+     * @return The latest snapshot, or null if there is none, it is unreadable or none was requested
+     */
+    public ComponentSerializationService.ComponentSnapshot previousSnapshot() {
+        return previousSnapshot.join();
+    }
+
+    /**
+     * @return Sorted class files per configured base path; null values mark missing directories
+     * @throws IOException if the strategy configuration or a class directory cannot be read
+     */
+    public Map<Path, List<Path>> classFiles() throws IOException {
+        return join(classFiles);
+    }
+
+    /**
+     * Computes the input fingerprint from the enumerated class tree, without waiting for the
+     * C4 configuration to be validated.
+     *
+     * @return Hex-encoded input fingerprint
+     * @throws IOException if an input file cannot be read
+     */
+    public String fingerprint() throws IOException {
+        return InputFingerprint.compute(c4ConfigFile, strategyConfigFile, classFiles());
+    }
+
+    /**
+     * Returns the config cache key, or null if the cache is disabled or the files cannot be read;
+     * in the latter case the regular loaders report the error.
+     */
+    private String cacheKey() {
+        if (ConfigCache.cacheDir() == null) {
+            return null;
+        }
+        try {
+            return ConfigCache.keyFor(c4ConfigFile, strategyConfigFile);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> resolveContainerKeys(C4ModelConfigDetail c4Config) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (ContainerConfigDetail containerConfig : c4Config.getContainers()) {
+            keys.put(containerConfig.getName(),
+                    C4ModelGenerator.findContainerKeyInConfig(containerConfig.getName(), c4Config.getContainerMap()));
+        }
+        return keys;
+    }
+
+    private static Map<Path, List<Path>> enumerateClassFiles(StrategyConfiguration strategyConfig) {
+        Map<Path, List<Path>> classFiles = new LinkedHashMap<>();
+        try {
+            for (Path root : InputFingerprint.classRoots(strategyConfig)) {
+                classFiles.put(root, InputFingerprint.listClassFiles(root));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classFiles;
+    }
+
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private static <T> CompletableFuture<T> supply(IoSupplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.get();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Waits for a task and rethrows its failure unwrapped.
+     */
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.c4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.example.model.ContainerDetail;
+import org.example.service.ComponentChangeDetector;
+import org.example.service.ComponentSerializationService;
+
+/**
+ * Long-running watch mode that keeps the workspace up to date while classes are recompiled.
+ *
+ * <p>A {@link WatchService} is registered on every configured container base path (recursively)
+ * and on the directories of the C4 and strategy configuration files and the component include files.
+ * Events are collected until the file system has been quiet for {@value #DEBOUNCE_MILLIS} ms, so one
+ * compile produces one update.</p>
+ *
+ * <p>Each change batch is mapped to the containers whose base path contains a changed file. Only those
+ * containers are rescanned; all others are replayed from the {@link ModelPipeline} scan cache. The
+ * workspace is then re-exported and the component snapshot updated. A change to a configuration file
+ * or component include reloads the configuration and rescans everything.</p>
+ *
+ * <p>A failing update (for example a class file the compiler has not finished or an invalid
+ * configuration edit) is logged and the watcher keeps running; the next change batch retries. The
+ * latest component snapshot is kept in memory, so change detection does not re-read it from disk
+ * for every batch.</p>
+ */
+public class WorkspaceWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final ModelPipeline pipeline;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    private final Path configFile;
+    private final Path strategyConfigFile;
+    private Map<String, Path> containerBasePaths = new LinkedHashMap<>();
+    /** Component include files of the configuration; a change reloads the configuration */
+    private Set<Path> includeFiles = new HashSet<>();
+    /** The latest recorded component snapshot, so change batches do not reload it from disk */
+    private ComponentSerializationService.ComponentSnapshot latestSnapshot;
+
+    public WorkspaceWatcher(ModelPipeline pipeline) throws IOException {
+        this.pipeline = pipeline;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.configFile = Path.of(pipeline.getConfigPath()).toAbsolutePath().normalize();
+        this.strategyConfigFile = Path.of(pipeline.getStrategyConfigPath()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Builds the model once, then blocks and applies change batches until the thread is interrupted.
+     * Failing change batches are logged and do not end watch mode.
+     *
+     * @throws Exception if the initial build fails or the watch service breaks down
+     */
+    public void run() throws Exception {
+        System.out.println("\n=== WATCH MODE ===");
+        update("initial build");
+        registerWatches();
+
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                boolean overflow = collect(watchService.take(), changed);
+
+                // Wait until the compiler has finished writing before updating
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changed);
+                }
+
+                try {
+                    handleChanges(changed, overflow);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // A half-written class file or an invalid configuration edit is usually fixed by the next change
+                    System.err.println("Update failed: " + e.getMessage());
+                    e.printStackTrace();
+                    System.out.println(" Keeping the previous workspace - watching for changes...");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Watch mode stopped");
+        } finally {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Invalidates the pipeline for a change batch and rebuilds the workspace.
+     */
+    private void handleChanges(Set<Path> changed, boolean overflow) throws Exception {
+        if (overflow) {
+            System.out.println("\nWatch events overflowed - rescanning all containers");
+            pipeline.invalidate(ModelPipeline.Stage.SCAN);
+            update("event overflow");
+            return;
+        }
+
+        if (changed.contains(configFile) || changed.contains(strategyConfigFile) ||
+                changed.stream().anyMatch(includeFiles::contains)) {
+            System.out.println("\nConfiguration changed - reloading configuration and rescanning");
+            pipeline.invalidate(ModelPipeline.Stage.CONFIG);
+            update("configuration change");
+            registerWatches();
+            return;
+        }
+
+        Set<String> affectedContainers = new TreeSet<>();
+        for (Map.Entry<String, Path> entry : containerBasePaths.entrySet()) {
+            for (Path path : changed) {
+                if (path.startsWith(entry.getValue())) {
+                    affectedContainers.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+
+        if (affectedContainers.isEmpty()) {
+            return;
+        }
+
+        System.out.println("\n" + changed.size() + " changed files affect: " + affectedContainers);
+        affectedContainers.forEach(pipeline::invalidateContainer);
+        update(affectedContainers.size() + " containers changed");
+    }
+
+    /**
+     * Runs the stale pipeline stages, exports the workspace and records the component snapshot.
+     */
+    private void update(String reason) throws Exception {
+        long start = System.nanoTime();
+
+        pipeline.run(ModelPipeline.Stage.EXPORT);
+
+        // The snapshot file is read once; afterwards the snapshot recorded by the previous update is used
+        if (latestSnapshot == null) {
+            latestSnapshot = ComponentSerializationService.loadLatestSnapshot(ComponentSerializationService.COMPONENTS_DIR);
+        }
+        ComponentChangeDetector.ChangeDetection detection = ComponentChangeDetector.compareWithSnapshot(
+                pipeline.getScannedContainers(), latestSnapshot, ComponentSerializationService.COMPONENTS_DIR);
+        ComponentChangeDetector.recordSnapshot(detection);
+        latestSnapshot = detection.snapshot;
+        if (detection.contentChanged()) {
+            System.out.println(ComponentChangeDetector.generateChangeReport(detection.result));
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println(" Workspace updated (" + reason + ") in " + elapsedMillis + " ms - watching for changes...");
+    }
+
+    /**
+     * Registers the configuration directories and every container base path. Safe to call again
+     * after a configuration reload; already watched directories are not registered twice.
+     */
+    private void registerWatches() throws IOException {
+        register(configFile.getParent());
+        register(strategyConfigFile.getParent());
+
+        includeFiles = new HashSet<>();
+        for (ContainerDetail containerDetail : pipeline.getConfig().getContainerMap().values()) {
+            if (containerDetail.isIncluded()) {
+                Path includeFile = containerDetail.getIncludeFile().toPath().toAbsolutePath().normalize();
+                includeFiles.add(includeFile);
+                if (Files.isDirectory(includeFile.getParent())) {
+                    register(includeFile.getParent());
+                }
+            }
+        }
+
+        containerBasePaths = new LinkedHashMap<>();
+        for (Map.Entry<String, File> entry : pipeline.getContainerBasePaths().entrySet()) {
+            Path basePath = entry.getValue().toPath().toAbsolutePath().normalize();
+            containerBasePaths.put(entry.getKey(), basePath);
+            if (Files.isDirectory(basePath)) {
+                registerRecursively(basePath);
+            } else {
+                System.out.println(" Warning: base path " + basePath + " of " + entry.getKey() + " does not exist - not watched");
+            }
+        }
+
+        System.out.println(" Watching " + watchedDirectories.size() + " directories for " +
+                containerBasePaths.size() + " containers");
+    }
+
+    private void registerRecursively(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(Path directory) throws IOException {
+        if (directory == null || watchedDirectories.containsValue(directory)) {
+            return;
+        }
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, directory);
+    }
+
+    /**
+     * Drains the events of one key into {@code changed}, watching newly created directories as well.
+     *
+     * @return true if events were lost and the change set is incomplete
+     */
+    private boolean collect(WatchKey key, Set<Path> changed) throws IOException {
+        Path directory = watchedDirectories.get(key);
+        boolean overflow = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            changed.add(path);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                registerRecursively(path);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+        return overflow;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.utils.ConfigJson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+
+/**
+ * Manifest of repositories processed together by batch mode.
+ *
+ * <p>Example:</p>
+ * <pre>
+ * {
+ *   "threads": 4,
+ *   "outputDir": "batch-output",
+ *   "repositories": [
+ *     {
+ *       "name": "billing-service",
+ *       "c4Config": "repos/billing/c4ModelConfig.json",
+ *       "strategyConfig": "repos/billing/strategyConfig.json"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ *
+ * <p>Each repository gets its own snapshot namespace. Unless set explicitly, its snapshot history,
+ * exported workspace and change report are written below {@code outputDir/name}.</p>
+ */
+@Getter
+@Setter
+public class BatchManifest {
+
+    /** Size of the shared worker pool; defaults to the number of available processors */
+    @JsonProperty("threads")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Root directory for per-repository output that is not configured explicitly */
+    @JsonProperty("outputDir")
+    private String outputDir = "batch-output";
+
+    /** Repositories to scan */
+    @JsonProperty("repositories")
+    private List<Repository> repositories;
+
+    /**
+     * Loads a batch manifest from a JSON file.
+     *
+     * @param manifestFile The manifest to read
+     * @return The parsed manifest
+     * @throws IOException if the file cannot be read or parsed
+     * @throws IllegalArgumentException if a repository misses its name or configuration paths
+     */
+    public static BatchManifest loadFromFile(File manifestFile) throws IOException {
+        BatchManifest manifest = ConfigJson.readValue(manifestFile, BatchManifest.class);
+        if (manifest.repositories == null || manifest.repositories.isEmpty()) {
+            throw new IllegalArgumentException("Batch manifest " + manifestFile + " lists no repositories");
+        }
+        for (Repository repository : manifest.repositories) {
+            if (repository.name == null || repository.c4Config == null || repository.strategyConfig == null) {
+                throw new IllegalArgumentException("Each repository in " + manifestFile +
+                        " needs name, c4Config and strategyConfig");
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * One repository of the batch, with its configuration files and output locations.
+     */
+    @Getter
+    @Setter
+    public static class Repository {
+
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("c4Config")
+        private String c4Config;
+
+        @JsonProperty("strategyConfig")
+        private String strategyConfig;
+
+        /** Snapshot history directory; defaults to {@code outputDir/name/discovered-components} */
+        @JsonProperty("snapshotDir")
+        private String snapshotDir;
+
+        /** Workspace export file; defaults to {@code outputDir/name/avatar-c4-model.json} */
+        @JsonProperty("exportPath")
+        private String exportPath;
+
+        /** Change report file; defaults to {@code outputDir/name/change-report.txt} */
+        @JsonProperty("reportPath")
+        private String reportPath;
+
+        public String resolveSnapshotDir(String outputDir) {
+            return snapshotDir != null ? snapshotDir : Path.of(outputDir, name, "discovered-components").toString();
+        }
+
+        public String resolveExportPath(String outputDir) {
+            return exportPath != null ? exportPath : Path.of(outputDir, name, "avatar-c4-model.json").toString();
+        }
+
+        public String resolveReportPath(String outputDir) {
+            return reportPath != null ? reportPath : Path.of(outputDir, name, "change-report.txt").toString();
+        }
+    }
+}
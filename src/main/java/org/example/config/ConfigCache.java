@@ -0,0 +1,183 @@
+package org.example.config;
+
+import org.example.model.C4ModelConfigDetail;
+import org.example.utils.AtomicFileWriter;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Binary cache of validated configurations.
+ *
+ * <p>Parsing {@code c4ModelConfig.json}, validating it against its JSON schema and parsing the
+ * strategy configuration happen on every run, although the files rarely change. This cache stores
+ * the validated result, together with the resolved container-key mapping and the
+ * {@link StrategyPlan} of the strategy configuration, as a serialized Java
+ * object below {@value #DEFAULT_CACHE_DIR}. Entries are keyed by the content hash of the C4
+ * configuration, the strategy configuration and their schemas, so any edit to one of them is a
+ * miss and stale entries are never used.</p>
+ *
+ * <p>The cache directory is taken from the {@value #CACHE_DIR_PROPERTY} system property; an empty
+ * value disables the cache. Unreadable entries, for example written by an incompatible version
+ * of the model classes, are treated as a miss and replaced.</p>
+ */
+public class ConfigCache {
+
+    /** System property selecting the cache directory; empty disables the cache */
+    public static final String CACHE_DIR_PROPERTY = "c4.cache.dir";
+    public static final String DEFAULT_CACHE_DIR = ".c4cache";
+
+    /** Part of every key, so entries of an older cache layout are never read */
+    private static final String FORMAT_VERSION = "config-cache-3";
+    private static final String ENTRY_PREFIX = "config-";
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    /** Only the configuration model may be deserialized from a cache entry */
+    private static final ObjectInputFilter ENTRY_FILTER = ObjectInputFilter.Config.createFilter(
+            "org.example.config.*;org.example.model.*;java.util.*;java.lang.*;!*");
+
+    /**
+     * A validated configuration as stored in the cache.
+     */
+    public static class ResolvedConfig implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final C4ModelConfigDetail c4Config;
+        public final StrategyConfiguration strategyConfig;
+        /** Component configuration key per configured container name; null values mark unmapped containers */
+        public final Map<String, String> containerKeys;
+
+        public ResolvedConfig(C4ModelConfigDetail c4Config, StrategyConfiguration strategyConfig,
+                              Map<String, String> containerKeys) {
+            this.c4Config = c4Config;
+            this.strategyConfig = strategyConfig;
+            this.containerKeys = containerKeys;
+        }
+    }
+
+    /**
+     * @return The cache directory, or null if the cache is disabled
+     */
+    public static Path cacheDir() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR);
+        return dir.isBlank() ? null : Path.of(dir);
+    }
+
+    /**
+     * Computes the cache key of a configuration from the content of all files it is built from.
+     *
+     * @param c4Config       The C4 model configuration file
+     * @param strategyConfig The strategy configuration file
+     * @return Hex-encoded SHA-256 key
+     * @throws IOException if one of the files cannot be read
+     */
+    public static String keyFor(File c4Config, File strategyConfig) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        digest.update(FORMAT_VERSION.getBytes());
+        update(digest, Files.readAllBytes(c4Config.toPath()));
+        update(digest, schemaBytes(c4Config));
+        update(digest, Files.readAllBytes(strategyConfig.toPath()));
+        update(digest, strategySchemaBytes(strategyConfig));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Reads a cache entry.
+     *
+     * @param key Key from {@link #keyFor(File, File)}
+     * @return The cached configuration, or null on a miss or if the cache is disabled
+     */
+    public static ResolvedConfig load(String key) {
+        Path entry = entryPath(key);
+        if (entry == null || !Files.isRegularFile(entry)) {
+            return null;
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            in.setObjectInputFilter(ENTRY_FILTER);
+            return (ResolvedConfig) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println(" Warning: ignoring unreadable config cache entry " + entry + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache entry atomically. Failures only cost the next run a cache miss, so they are
+     * reported and otherwise ignored.
+     *
+     * @param key    Key from {@link #keyFor(File, File)}
+     * @param config The validated configuration
+     */
+    public static void store(String key, ResolvedConfig config) {
+        Path entry = entryPath(key);
+        if (entry == null) {
+            return;
+        }
+
+        try {
+            AtomicFileWriter.write(entry, out -> {
+                ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeObject(config);
+                objectOut.flush();
+            });
+        } catch (IOException e) {
+            System.err.println(" Warning: could not write config cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+
+    private static Path entryPath(String key) {
+        Path dir = cacheDir();
+        return dir != null && key != null ? dir.resolve(ENTRY_PREFIX + key + ENTRY_SUFFIX) : null;
+    }
+
+    /**
+     * Returns the schema the C4 configuration is validated against, resolved the same way as
+     * {@link C4ModelConfigDetail#validateConfigurationFile(File)}, or an empty array if there is none.
+     */
+    private static byte[] schemaBytes(File c4Config) throws IOException {
+        File schemaFile = C4ModelConfigDetail.schemaFileFor(c4Config);
+        if (schemaFile.exists()) {
+            return Files.readAllBytes(schemaFile.toPath());
+        }
+        try (InputStream resource = ConfigCache.class.getClassLoader().getResourceAsStream(C4ModelConfigDetail.SCHEMA_FILE)) {
+            return resource != null ? resource.readAllBytes() : new byte[0];
+        }
+    }
+
+    /**
+     * Returns the schema the strategy configuration is validated against, or an empty array if there is none.
+     */
+    private static byte[] strategySchemaBytes(File strategyConfig) throws IOException {
+        File schemaFile = StrategyConfiguration.schemaFileFor(strategyConfig);
+        return schemaFile.exists() ? Files.readAllBytes(schemaFile.toPath()) : new byte[0];
+    }
+
+    /**
+     * Adds length-prefixed content, so file boundaries cannot shift between inputs.
+     */
+    private static void update(MessageDigest digest, byte[] content) {
+        digest.update(Integer.toString(content.length).getBytes());
+        digest.update((byte) '\n');
+        digest.update(content);
+    }
+}
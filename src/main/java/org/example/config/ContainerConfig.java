@@ -2,10 +2,10 @@ package org.example.config;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.ToString;
 import org.example.model.ContainerDetail;
+import org.example.utils.ConfigJson;
 
 import java.io.File;
 import java.io.IOException;
@@ -57,15 +57,16 @@ public class ContainerConfig {
      * Convenience factory method for loading container configuration from a JSON file.
      * 
      * This static method provides a simple way to load and parse container configurations
-     * directly from a file system path. It handles the Jackson ObjectMapper setup and
-     * error handling for file operations.
+     * directly from a file system path. It uses the shared configuration reader and
+     * handles error handling for file operations.
      * 
      * @param jsonFile File object pointing to the JSON configuration file
      * @return Fully initialized ContainerConfig with all container mappings loaded
      * @throws IOException If the file cannot be read or contains invalid JSON
      */
     public static ContainerConfig loadFromFile(File jsonFile) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readValue(jsonFile, ContainerConfig.class);
+        ContainerConfig config = ConfigJson.readValue(jsonFile, ContainerConfig.class);
+        config.containerMap.values().forEach(detail -> detail.resolveInclude(jsonFile));
+        return config;
     }
 }
@@ -1,15 +1,21 @@
 package org.example.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.structurizr.component.matcher.TypeMatcher;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.Serializable;
 import java.util.Map;
 
 
 @Getter
 @Setter
-public class StrategyConfig {
+public class StrategyConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     /** Human-readable name describing what this strategy discovers (e.g., "Spring Services", "Repository Classes") */
     @JsonProperty("name")
@@ -39,6 +45,11 @@ public class StrategyConfig {
     /** Flag indicating whether this strategy should be executed during component discovery */
     @JsonProperty("enabled")
     private boolean enabled = true;
+
+    /** Matcher compiled once from type and config when the configuration is loaded; not part of the JSON */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient TypeMatcher compiledMatcher;
     
     /**
      * Enum defining the available strategy types
@@ -50,6 +61,20 @@ public class StrategyConfig {
         CUSTOM_ANNOTATION // Uses custom NewComponentStrategy
     }
     
+    /**
+     * @return The matcher compiled by {@link org.example.utils.StrategyFactory#compileStrategies},
+     *         or null if this strategy has not been compiled
+     */
+    @JsonIgnore
+    public TypeMatcher getCompiledMatcher() {
+        return compiledMatcher;
+    }
+
+    @JsonIgnore
+    public void setCompiledMatcher(TypeMatcher compiledMatcher) {
+        this.compiledMatcher = compiledMatcher;
+    }
+
     /**
      * Get configuration value as String
      */
@@ -1,21 +1,31 @@
 package org.example.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.Getter;
 import lombok.Setter;
 import org.example.service.ConfigurableComponentScanner;
+import org.example.utils.ConfigJson;
+import org.example.utils.JsonSchemaValidator;
 import org.example.utils.StrategyFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
 
 @Getter
 @Setter
-public class StrategyConfiguration {
+public class StrategyConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String SCHEMA_FILE = "strategyConfigSchema.json";
+    private static final String SCHEMA_RESOURCE = "org/example/json/" + SCHEMA_FILE;
+
     
     /**
      * List of all component discovery strategies to apply
@@ -31,27 +41,52 @@ public class StrategyConfiguration {
      */
     @JsonProperty("globalConfig")
     private GlobalConfig globalConfig;
+
+    /**
+     * Execution plan built by {@link StrategyFactory#compileStrategies(StrategyConfiguration)}.
+     * Not part of the JSON, but serialized with the configuration into the config cache.
+     */
+    @JsonIgnore
+    private StrategyPlan plan;
     
     /**
      * Loads strategy configuration from a JSON file.
      * 
-     * <p>This factory method deserializes a complete strategy configuration from
-     * a JSON file using Jackson ObjectMapper. The JSON structure must conform to
-     * the expected schema with "strategies" and "globalConfig" top-level properties.</p>
+     * <p>This factory method reads the file once, validates it against
+     * {@value #SCHEMA_FILE} and binds it. The JSON structure must conform to
+     * the schema with "strategies" and "globalConfig" top-level properties.</p>
      * 
-     * <p>The loaded configuration is validated during deserialization to ensure
-     * all required fields are present and properly formatted.</p>
+     * <p>Every enabled strategy is then compiled with
+     * {@link StrategyFactory#compileStrategies(StrategyConfiguration)}, so a misconfigured
+     * strategy rejects the configuration here, before any class file is scanned. Compiling also
+     * builds the {@link StrategyPlan} used by the scanner.</p>
      * 
      * @param configFile The JSON configuration file to load. Must exist and be readable.
-     * @return Fully parsed and validated strategy configuration ready for use
-     * @throws IOException If file reading fails, file doesn't exist, or JSON parsing fails
-     * @throws IllegalArgumentException If the JSON structure is invalid or missing required fields
+     * @return Fully parsed, validated and compiled strategy configuration ready for use
+     * @throws IOException If file reading fails, file doesn't exist, JSON parsing fails or schema validation fails
+     * @throws IllegalArgumentException If a strategy is missing parameters or has an invalid pattern or annotation type
      * 
      * @see #getStrategiesForContainer(String) for filtering strategies by container
      */
     public static StrategyConfiguration loadFromFile(File configFile) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readValue(configFile, StrategyConfiguration.class);
+        JsonNode tree = ConfigJson.readTree(configFile);
+        JsonSchemaValidator.validateDocument(tree, configFile, SCHEMA_FILE, SCHEMA_RESOURCE, "Strategy configuration");
+
+        StrategyConfiguration configuration = ConfigJson.treeToValue(tree, StrategyConfiguration.class);
+        StrategyFactory.compileStrategies(configuration);
+        return configuration;
+    }
+
+    /**
+     * Resolves the schema file a strategy configuration is validated against: the schema next
+     * to the configuration, otherwise the project default. If the returned file does not exist,
+     * validation falls back to the classpath schema.
+     *
+     * @param configFile The strategy configuration file
+     * @return The schema file to validate with
+     */
+    public static File schemaFileFor(File configFile) {
+        return JsonSchemaValidator.schemaFileFor(configFile, SCHEMA_FILE);
     }
     
     /**
@@ -101,7 +136,9 @@ public class StrategyConfiguration {
      */
     @Getter
     @Setter
-    public static class GlobalConfig {
+    public static class GlobalConfig implements Serializable {
+
+        private static final long serialVersionUID = 1L;
         
         /**
          * Controls whether inner and anonymous classes are excluded from component discovery.
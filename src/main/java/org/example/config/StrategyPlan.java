@@ -0,0 +1,157 @@
+package org.example.config;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Execution plan of a strategy configuration, built once when the configuration is compiled.
+ *
+ * <p>Scanning used to filter the complete strategy list for every container and apply the
+ * strategies in file order. The plan does this work up front: the enabled strategies are grouped
+ * per container, ordered by estimated matching cost, and the containers are grouped by the class
+ * directory they scan. Strategies with the same cost keep their configured order.</p>
+ *
+ * <p>The plan is serializable and stored with its configuration in the
+ * {@link ConfigCache}, so warm starts reuse it. The matchers themselves are not serialized; they
+ * are kept on the {@link StrategyConfig}s and recompiled after a cache hit.</p>
+ *
+ * @see org.example.utils.StrategyFactory#compileStrategies(StrategyConfiguration)
+ */
+public class StrategyPlan implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Used when neither the strategy nor the global configuration names a technology */
+    public static final String DEFAULT_TECHNOLOGY = "Java";
+
+    /**
+     * The strategies of one container, in the order they are applied.
+     */
+    public static class ContainerPlan implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final String containerKey;
+        /** Class directory to scan as configured, or null if the container has none */
+        public final String basePath;
+        public final String technology;
+        /** Enabled strategies, cheapest first */
+        public final List<StrategyConfig> strategies;
+
+        public ContainerPlan(String containerKey, String basePath, String technology, List<StrategyConfig> strategies) {
+            this.containerKey = containerKey;
+            this.basePath = basePath;
+            this.technology = technology;
+            this.strategies = strategies;
+        }
+    }
+
+    private final Map<String, ContainerPlan> containers;
+    private final Map<String, List<String>> containersByBasePath;
+
+    private StrategyPlan(Map<String, ContainerPlan> containers, Map<String, List<String>> containersByBasePath) {
+        this.containers = containers;
+        this.containersByBasePath = containersByBasePath;
+    }
+
+    /**
+     * Builds the plan of a strategy configuration. Only grouping and ordering happen here;
+     * strategy parameters are validated when the matchers are compiled.
+     *
+     * @param configuration The strategy configuration
+     * @return The plan covering every container that has strategies or a base path
+     */
+    public static StrategyPlan build(StrategyConfiguration configuration) {
+        StrategyConfiguration.GlobalConfig globalConfig = configuration.getGlobalConfig() != null
+                ? configuration.getGlobalConfig() : new StrategyConfiguration.GlobalConfig();
+
+        Map<String, List<StrategyConfig>> strategiesByContainer = new LinkedHashMap<>();
+        if (configuration.getStrategies() != null) {
+            for (StrategyConfig strategy : configuration.getStrategies()) {
+                if (strategy.isEnabled()) {
+                    strategiesByContainer.computeIfAbsent(strategy.getContainerMapping(), key -> new ArrayList<>()).add(strategy);
+                }
+            }
+        }
+        if (globalConfig.getBasePaths() != null) {
+            for (String containerKey : globalConfig.getBasePaths().keySet()) {
+                strategiesByContainer.computeIfAbsent(containerKey, key -> new ArrayList<>());
+            }
+        }
+
+        Map<String, ContainerPlan> containers = new LinkedHashMap<>();
+        Map<String, List<String>> containersByBasePath = new TreeMap<>();
+        for (Map.Entry<String, List<StrategyConfig>> entry : strategiesByContainer.entrySet()) {
+            String containerKey = entry.getKey();
+            List<StrategyConfig> strategies = entry.getValue();
+            // List.sort is stable, so strategies of equal cost keep their configured order
+            strategies.sort(Comparator.comparingInt(strategy -> costOf(strategy.getType())));
+
+            String basePath = globalConfig.getBasePath(containerKey);
+            String technology = globalConfig.getDefaultTechnology(containerKey);
+            containers.put(containerKey, new ContainerPlan(containerKey, basePath,
+                    technology != null ? technology : DEFAULT_TECHNOLOGY, Collections.unmodifiableList(strategies)));
+
+            if (basePath != null) {
+                containersByBasePath.computeIfAbsent(Path.of(basePath).normalize().toString(), key -> new ArrayList<>())
+                        .add(containerKey);
+            }
+        }
+        return new StrategyPlan(Collections.unmodifiableMap(containers), Collections.unmodifiableMap(containersByBasePath));
+    }
+
+    /**
+     * Estimated cost of evaluating one class with a strategy type. Name-based matchers only look
+     * at the class name; annotation matchers inspect the parsed bytecode, and custom annotation
+     * matchers additionally walk the annotation's element values.
+     *
+     * @param type The strategy type
+     * @return Relative cost, lower is cheaper
+     */
+    public static int costOf(StrategyConfig.StrategyType type) {
+        if (type == null) {
+            return Integer.MAX_VALUE;
+        }
+        switch (type) {
+            case NAME_SUFFIX:
+                return 0;
+            case REGEX:
+                return 1;
+            case ANNOTATION:
+                return 2;
+            case CUSTOM_ANNOTATION:
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * @param containerKey The container's configuration key
+     * @return The container's plan, or null if the configuration does not mention the container
+     */
+    public ContainerPlan forContainer(String containerKey) {
+        return containers.get(containerKey);
+    }
+
+    /**
+     * @return Plans of all containers, in configuration order
+     */
+    public Map<String, ContainerPlan> getContainers() {
+        return containers;
+    }
+
+    /**
+     * @return Container keys per normalized base path, in path order; containers listed under the
+     *         same path scan the same class directory
+     */
+    public Map<String, List<String>> getContainersByBasePath() {
+        return containersByBasePath;
+    }
+}
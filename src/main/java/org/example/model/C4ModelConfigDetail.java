@@ -2,19 +2,26 @@ package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.Getter;
 import lombok.ToString;
+import org.example.utils.ConfigJson;
 import org.example.utils.JsonSchemaValidator;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 
 
 @Getter
 @ToString
-public class C4ModelConfigDetail {
+public class C4ModelConfigDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** File name of the configuration schema, next to the configuration or in the project default directory */
+    public static final String SCHEMA_FILE = "c4ModelConfigSchema.json";
 
     private final WorkspaceDetail workspace;
     private final List<PersonDetail> persons;
@@ -62,6 +69,9 @@ public class C4ModelConfigDetail {
      * Convenience factory method for loading complete C4 model configuration from a JSON file
      * with optional schema validation.
      * 
+     * <p>Component maps kept in include files are only resolved here. Each include is read and
+     * validated when its container is first used, see {@link ContainerDetail#getObjectMapper()}.</p>
+     * 
      * @param jsonFile File object pointing to the JSON configuration file
      * @param validateSchema Whether to validate against the JSON schema
      * @return Fully initialized C4ModelConfig with all elements loaded
@@ -69,12 +79,47 @@ public class C4ModelConfigDetail {
      * @throws JsonSchemaValidator.ValidationException If schema validation fails
      */
     public static C4ModelConfigDetail loadFromFile(File jsonFile, boolean validateSchema) throws IOException {
+        // Parsed once: the same tree is validated and then bound
+        JsonNode tree = ConfigJson.readTree(jsonFile);
         if (validateSchema) {
-            validateConfigurationFile(jsonFile);
+            validateConfiguration(tree, jsonFile);
         }
-        
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readValue(jsonFile, C4ModelConfigDetail.class);
+
+        return ConfigJson.treeToValue(tree, C4ModelConfigDetail.class).resolveIncludes(jsonFile);
+    }
+
+    /**
+     * Resolves the component includes of all containers against the configuration file. Called
+     * after loading, and again when a cached configuration is used for a file that may have moved.
+     *
+     * @param jsonFile The JSON configuration file
+     * @return This configuration
+     */
+    public C4ModelConfigDetail resolveIncludes(File jsonFile) {
+        containerComponentMap.values().forEach(detail -> detail.resolveInclude(jsonFile));
+        return this;
+    }
+
+    /**
+     * Lists the component include files referenced by a configuration file, in configuration
+     * order, without validating or loading them.
+     *
+     * @param jsonFile The JSON configuration file
+     * @return Include file per container key
+     * @throws IOException If the configuration cannot be read
+     */
+    public static Map<String, File> includeFilesOf(File jsonFile) throws IOException {
+        Map<String, File> includes = new LinkedHashMap<>();
+        for (JsonNode entry : ConfigJson.readTree(jsonFile).path("container")) {
+            entry.fields().forEachRemaining(container -> {
+                JsonNode include = container.getValue().path("include");
+                if (include.isTextual()) {
+                    includes.put(container.getKey(),
+                            jsonFile.getAbsoluteFile().toPath().resolveSibling(include.asText()).normalize().toFile());
+                }
+            });
+        }
+        return includes;
     }
     
     /**
@@ -85,41 +130,64 @@ public class C4ModelConfigDetail {
      * @throws JsonSchemaValidator.ValidationException If validation fails
      */
     public static void validateConfigurationFile(File jsonFile) throws IOException {
-        JsonSchemaValidator validator = new JsonSchemaValidator();
-        File schemaFile;
-        // Try to find schema file in the same directory
-        if( !jsonFile.exists() || !jsonFile.isFile()) {
-           schemaFile = new File("src/main/java/org/example/json/c4ModelConfigSchema.json");
-        }else{
-            schemaFile = new File(jsonFile.getParent(), "c4ModelConfigSchema.json");
-        }
+        validateConfiguration(ConfigJson.readTree(jsonFile), jsonFile);
+    }
 
-        
-        JsonSchemaValidator.ValidationResult result;
-        if (schemaFile.exists()) {
-            result = validator.validateJsonFile(jsonFile, schemaFile);
-            System.out.println(" Using schema file: " + schemaFile.getAbsolutePath());
-        } else {
-            // Fallback to classpath resource
-            try {
-                result = validator.validateJsonFileWithResource(jsonFile, "c4ModelConfigSchema.json");
-                System.out.println(" Using schema from classpath");
-            } catch (IOException e) {
-                System.out.println(" Warning: Schema validation skipped - schema file not found");
-                return;
-            }
-        }
-        
-        if (result.isValid()) {
+    /**
+     * Validates an already parsed C4 model configuration against the JSON schema.
+     *
+     * @param tree The parsed configuration
+     * @param jsonFile The file the configuration was read from, used to locate the schema
+     * @throws IOException If the schema cannot be read or validation fails
+     */
+    private static void validateConfiguration(JsonNode tree, File jsonFile) throws IOException {
+        if (JsonSchemaValidator.validateDocument(tree, jsonFile, SCHEMA_FILE, SCHEMA_FILE, "Configuration")) {
             System.out.println(" JSON configuration validation passed");
-        } else {
-            System.err.println(" JSON configuration validation failed:");
-            System.err.println(result.getErrorSummary());
-            try {
-                result.throwIfInvalid();
-            } catch (JsonSchemaValidator.ValidationException e) {
-                throw new IOException("Configuration validation failed: " + e.getMessage(), e);
-            }
+        }
+    }
+
+    /**
+     * Resolves the schema file a configuration file is validated against: the schema next to
+     * the configuration, otherwise the project default. If the returned file does not exist,
+     * validation falls back to the classpath schema.
+     *
+     * @param jsonFile The JSON configuration file
+     * @return The schema file to validate with
+     */
+    public static File schemaFileFor(File jsonFile) {
+        return JsonSchemaValidator.schemaFileFor(jsonFile, SCHEMA_FILE);
+    }
+
+    /**
+     * Loads the component includes of the given containers in parallel, so each include is
+     * read and validated independently. Containers without an include are skipped, and
+     * includes of other containers stay unloaded until they are used.
+     *
+     * @param containerKeys Keys of the containers about to be used
+     * @throws IOException listing every include that could not be loaded
+     */
+    public void loadIncludes(Collection<String> containerKeys) throws IOException {
+        List<ContainerDetail> included = containerKeys.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(containerComponentMap::get)
+                .filter(detail -> detail != null && detail.isIncluded())
+                .toList();
+
+        List<String> problems = included.parallelStream()
+                .map(detail -> {
+                    try {
+                        detail.loadIncludedComponents();
+                        return null;
+                    } catch (IOException e) {
+                        return e.getMessage();
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (!problems.isEmpty()) {
+            throw new IOException("Component includes could not be loaded:\n- " + String.join("\n- ", problems));
         }
     }
 
@@ -1,16 +1,21 @@
 package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import java.util.List;
 
+import java.io.Serializable;
+
 
 @Getter
 @NoArgsConstructor
 @ToString
-public class ComponentDetail {
+public class ComponentDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /** Comma-separated tags for categorizing and styling the component (e.g., "API,Interface,Core") */
     private String tags;
@@ -27,13 +32,20 @@ public class ComponentDetail {
     /** List of outgoing relationships from this component to other components in the system */
     private List<Relations> relations;
 
+    /** Glob matched against component names instead of a single componentName, e.g. "*Controller" */
+    private String namePattern;
+
+    /** Regular expression matched against the fully qualified class name of a component */
+    private String typePattern;
+
+    /** Package whose classes (including subpackages) this entry applies to */
+    private String packageName;
+
     /**
-     * Creates a new ComponentDetail instance with complete component metadata.
+     * Creates a new ComponentDetail instance for a single named component.
      *
-     * This constructor is used primarily for JSON deserialization when loading
-     * component configurations from external configuration files. All parameters
-     * are optional and can be null, though componentName should typically be provided
-     * for proper component identification.
+     * All parameters are optional and can be null, though componentName should
+     * typically be provided for proper component identification.
      *
      * @param componentName Unique identifier for the component within its container
      * @param tags Comma-separated categorization tags (e.g., "API,Core,Interface")
@@ -41,18 +53,58 @@ public class ComponentDetail {
      * @param description Human-readable explanation of component purpose and functionality
      * @param relations List of relationships this component has to other components (can be null)
      */
+    public ComponentDetail(
+            String componentName,
+            String tags,
+            String technology,
+            String description,
+            List<Relations> relations
+    ) {
+        this(componentName, tags, technology, description, relations, null, null, null);
+    }
+
+    /**
+     * Creates a ComponentDetail that may apply to several components.
+     *
+     * <p>If any of namePattern, typePattern or packageName is set, the entry is a rule: it
+     * applies to every component that meets all given criteria, and componentName only labels
+     * it. See {@link ComponentIndex} for how rules are matched.</p>
+     *
+     * @param componentName Identifier of the component, or a label for a rule
+     * @param tags Comma-separated categorization tags
+     * @param technology Technology stack description
+     * @param description Human-readable explanation of component purpose and functionality
+     * @param relations List of relationships to other components (can be null)
+     * @param namePattern Glob on the component name, with * and ? wildcards (can be null)
+     * @param typePattern Regular expression on the fully qualified class name (can be null)
+     * @param packageName Package of the component classes, subpackages included (can be null)
+     */
     @JsonCreator
     public ComponentDetail(
             @JsonProperty("componentName") String componentName,
             @JsonProperty("tags") String tags,
             @JsonProperty("technology") String technology,
             @JsonProperty("description") String description,
-            @JsonProperty("relations") List<Relations> relations
+            @JsonProperty("relations") List<Relations> relations,
+            @JsonProperty("namePattern") String namePattern,
+            @JsonProperty("typePattern") String typePattern,
+            @JsonProperty("package") String packageName
     ) {
         this.tags = tags;
         this.technology = technology;
         this.description = description;
         this.componentName = componentName;
         this.relations = relations;
+        this.namePattern = namePattern;
+        this.typePattern = typePattern;
+        this.packageName = packageName;
+    }
+
+    /**
+     * @return true if this entry is a rule matched by pattern rather than by componentName
+     */
+    @JsonIgnore
+    public boolean isPattern() {
+        return namePattern != null || typePattern != null || packageName != null;
     }
 }
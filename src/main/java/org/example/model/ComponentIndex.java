@@ -0,0 +1,322 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable lookup index over the configured components of one container.
+ *
+ * <p>Enrichment used to compare every discovered component with every configured entry. The index
+ * is built once per {@link ContainerDetail} and resolves a component by its normalized name
+ * (lower case, trimmed), the same comparison enrichment has always used.</p>
+ *
+ * <p>Entries whose names normalize to the same key are merged in configuration order instead of
+ * failing the run: the first technology and description win, tags are combined and relations
+ * are concatenated without repeating the same target and type.</p>
+ *
+ * <p>Rule entries ({@link ComponentDetail#isPattern()}) apply to every component that meets all
+ * of their criteria: a glob on the component name, a regular expression on the fully qualified
+ * class name and a package. All rules of a container are compiled into one alternation, so each
+ * component is tested once however many rules exist. An entry for the exact component name
+ * takes precedence; otherwise the first matching rule in configuration order applies.</p>
+ *
+ * <p>End anchors ({@code $}, {@code \z}, {@code \Z}) in a type pattern mark the end of the class
+ * name, so the {@code .*Mapper$} style of the REGEX strategies works in rules as well.</p>
+ */
+public final class ComponentIndex {
+
+    /** Property in which the Structurizr component finder records the class a component was found from */
+    public static final String TYPE_PROPERTY = "component.type";
+
+    private static final ComponentIndex EMPTY = new ComponentIndex(Map.of(), Map.of(), List.of(), null, new int[0]);
+
+    /** Separates type and name in the subject rules are matched against; occurs in neither */
+    private static final char SEPARATOR = '\u0000';
+    private static final String NOT_SEPARATOR = "[^\\x00]";
+    private static final Pattern BACKREFERENCE = Pattern.compile("\\\\(\\d|k<)");
+
+    /** Merged entry per normalized component name */
+    private final Map<String, ComponentDetail> byNormalizedName;
+    /** The same entries keyed by the component name of their first occurrence */
+    private final Map<String, ComponentDetail> byName;
+    /** Rule entries in configuration order */
+    private final List<ComponentDetail> rules;
+    /** All rules as one alternation; the named group "r<i>" belongs to rule i. Null without rules */
+    private final Pattern rulePattern;
+    /** Number of the capturing group wrapping rule i, shifted by the groups of earlier type patterns */
+    private final int[] ruleGroups;
+
+    private ComponentIndex(Map<String, ComponentDetail> byNormalizedName, Map<String, ComponentDetail> byName,
+                           List<ComponentDetail> rules, Pattern rulePattern, int[] ruleGroups) {
+        this.byNormalizedName = byNormalizedName;
+        this.byName = byName;
+        this.rules = rules;
+        this.rulePattern = rulePattern;
+        this.ruleGroups = ruleGroups;
+    }
+
+    /**
+     * Builds the index of a component list. Entries that are neither rules nor have a component
+     * name are ignored.
+     *
+     * @param components The configured components, in configuration order
+     * @return The index, merging entries with the same normalized name
+     * @throws IllegalArgumentException if a rule has an invalid type pattern
+     */
+    public static ComponentIndex of(Collection<ComponentDetail> components) {
+        if (components == null || components.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, ComponentDetail> byNormalizedName = new LinkedHashMap<>();
+        List<ComponentDetail> rules = new ArrayList<>();
+        List<String> alternatives = new ArrayList<>();
+        List<Integer> ruleGroups = new ArrayList<>();
+        int nextGroup = 1;
+        for (ComponentDetail component : components) {
+            if (component != null && component.isPattern()) {
+                String rule = compileRule(component);
+                alternatives.add("(?<r" + rules.size() + ">" + rule + ")");
+                rules.add(component);
+                // Groups are numbered by their opening parenthesis: the wrapper, then the rule's own groups
+                ruleGroups.add(nextGroup);
+                nextGroup += 1 + Pattern.compile(rule).matcher("").groupCount();
+                continue;
+            }
+            if (component == null || component.getComponentName() == null) {
+                continue;
+            }
+            String key = normalize(component.getComponentName());
+            ComponentDetail existing = byNormalizedName.get(key);
+            if (existing != null) {
+                System.out.println(" Warning: component '" + component.getComponentName() +
+                        "' is configured more than once - entries merged");
+                component = merge(existing, component);
+            }
+            byNormalizedName.put(key, component);
+        }
+
+        Map<String, ComponentDetail> byName = new LinkedHashMap<>();
+        for (ComponentDetail component : byNormalizedName.values()) {
+            byName.put(component.getComponentName(), component);
+        }
+        Pattern rulePattern = rules.isEmpty() ? null : Pattern.compile(String.join("|", alternatives));
+        return new ComponentIndex(Collections.unmodifiableMap(byNormalizedName), Collections.unmodifiableMap(byName),
+                List.copyOf(rules), rulePattern, ruleGroups.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Translates a rule into a regular expression over "type SEPARATOR normalized name".
+     */
+    private static String compileRule(ComponentDetail rule) {
+        StringBuilder regex = new StringBuilder();
+        if (rule.getPackageName() != null) {
+            regex.append("(?=").append(Pattern.quote(rule.getPackageName() + ".")).append(')');
+        }
+        if (rule.getTypePattern() != null) {
+            try {
+                Pattern.compile(rule.getTypePattern());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid typePattern of component rule '" + label(rule) + "': " +
+                        e.getDescription() + " near index " + e.getIndex() + " in " + rule.getTypePattern(), e);
+            }
+            // Group numbers shift once the rules are combined, so backreferences cannot be resolved
+            if (BACKREFERENCE.matcher(rule.getTypePattern()).find()) {
+                throw new IllegalArgumentException("typePattern of component rule '" + label(rule) +
+                        "' must not use backreferences: " + rule.getTypePattern());
+            }
+            regex.append("(?:").append(anchorToType(rule.getTypePattern())).append(')');
+        } else {
+            regex.append(NOT_SEPARATOR).append('*');
+        }
+        regex.append("\\x00");
+        regex.append(rule.getNamePattern() != null ? globToRegex(normalize(rule.getNamePattern())) : NOT_SEPARATOR + "*");
+        return regex.toString();
+    }
+
+    /**
+     * Rewrites the end anchors of a type pattern into a lookahead for the separator, since the
+     * name follows the type in the subject. Escaped anchors, quoted sections and character
+     * classes are copied unchanged.
+     */
+    private static String anchorToType(String typePattern) {
+        String endOfType = "(?=\\x00)";
+        StringBuilder regex = new StringBuilder();
+        int classDepth = 0;
+        for (int i = 0; i < typePattern.length(); i++) {
+            char c = typePattern.charAt(i);
+            if (c == '\\' && i + 1 < typePattern.length()) {
+                char next = typePattern.charAt(i + 1);
+                if (next == 'Q') {
+                    int end = typePattern.indexOf("\\E", i + 2);
+                    end = end < 0 ? typePattern.length() : end + 2;
+                    regex.append(typePattern, i, end);
+                    i = end - 1;
+                } else if (classDepth == 0 && (next == 'z' || next == 'Z')) {
+                    regex.append(endOfType);
+                    i++;
+                } else {
+                    regex.append(c).append(next);
+                    i++;
+                }
+            } else if (c == '[') {
+                classDepth++;
+                regex.append(c);
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+                regex.append(c);
+            } else if (c == '$' && classDepth == 0) {
+                regex.append(endOfType);
+            } else {
+                regex.append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Translates a glob with * and ? wildcards; all other characters match literally.
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(NOT_SEPARATOR).append(c == '*' ? "*" : "");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static String label(ComponentDetail rule) {
+        return rule.getComponentName() != null ? rule.getComponentName()
+                : rule.getNamePattern() != null ? rule.getNamePattern()
+                : rule.getPackageName() != null ? rule.getPackageName() : rule.getTypePattern();
+    }
+
+    /**
+     * @param componentName A component or configuration name
+     * @return The name as compared by the index
+     */
+    public static String normalize(String componentName) {
+        return componentName.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * @param componentName Name of a discovered component
+     * @return The configured entry for the component, or null if it is not configured
+     */
+    public ComponentDetail lookup(String componentName) {
+        return lookup(componentName, null);
+    }
+
+    /**
+     * Finds the entry for a discovered component: the entry with its exact name, otherwise the
+     * first rule it matches.
+     *
+     * @param componentName Name of a discovered component
+     * @param typeName      Fully qualified class name of the component, or null if unknown
+     * @return The configured entry for the component, or null if it is not configured
+     */
+    public ComponentDetail lookup(String componentName, String typeName) {
+        if (componentName == null) {
+            return null;
+        }
+        ComponentDetail exact = byNormalizedName.get(normalize(componentName));
+        if (exact != null || rulePattern == null) {
+            return exact;
+        }
+
+        Matcher matcher = rulePattern.matcher((typeName != null ? typeName : "") + SEPARATOR + normalize(componentName));
+        if (!matcher.matches()) {
+            return null;
+        }
+        // Only the first matching alternative participates in the match
+        for (int i = 0; i < ruleGroups.length; i++) {
+            if (matcher.start(ruleGroups[i]) >= 0) {
+                return rules.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Unmodifiable map of configured component names to their (merged) entries; rules
+     *         are not included
+     */
+    public Map<String, ComponentDetail> asMap() {
+        return byName;
+    }
+
+    /**
+     * @return Number of named entries and rules
+     */
+    public int size() {
+        return byNormalizedName.size() + rules.size();
+    }
+
+    public boolean isEmpty() {
+        return byNormalizedName.isEmpty() && rules.isEmpty();
+    }
+
+    /**
+     * Merges a later entry into an earlier one with the same normalized name.
+     */
+    private static ComponentDetail merge(ComponentDetail first, ComponentDetail second) {
+        return new ComponentDetail(
+                first.getComponentName(),
+                mergeTags(first.getTags(), second.getTags()),
+                first.getTechnology() != null ? first.getTechnology() : second.getTechnology(),
+                first.getDescription() != null ? first.getDescription() : second.getDescription(),
+                mergeRelations(first.getRelations(), second.getRelations()));
+    }
+
+    private static String mergeTags(String first, String second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String tag : (first + "," + second).split(",")) {
+            if (!tag.isBlank()) {
+                tags.add(tag.trim());
+            }
+        }
+        return String.join(",", tags);
+    }
+
+    private static List<Relations> mergeRelations(List<Relations> first, List<Relations> second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        List<Relations> relations = new ArrayList<>(first);
+        for (Relations relation : second) {
+            boolean known = relations.stream().anyMatch(existing ->
+                    Objects.equals(existing.getTarget(), relation.getTarget()) &&
+                    Objects.equals(existing.getType(), relation.getType()));
+            if (!known) {
+                relations.add(relation);
+            }
+        }
+        return relations;
+    }
+}
@@ -7,10 +7,14 @@ import lombok.ToString;
 
 import java.util.List;
 
+import java.io.Serializable;
+
 
 @Getter
 @ToString
-public class ContainerConfigDetail {
+public class ContainerConfigDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     /** The display name of the container (should reflect its primary purpose or technology) */
     private final String name;
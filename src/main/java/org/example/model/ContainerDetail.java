@@ -1,18 +1,32 @@
 package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.*;
+import org.example.utils.ConfigJson;
+import org.example.utils.JsonSchemaValidator;
 
 import java.util.*;
-import java.util.stream.Collectors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
 
 
 @Getter
 @Setter
 @NoArgsConstructor
-@ToString
-public class ContainerDetail {
+@ToString(doNotUseGetters = true)
+public class ContainerDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String INCLUDE_SCHEMA_FILE = "containerComponentsSchema.json";
+    private static final String INCLUDE_SCHEMA_RESOURCE = "org/example/json/" + INCLUDE_SCHEMA_FILE;
+
 
     /**
      * List of component configurations within this container.
@@ -22,6 +36,30 @@ public class ContainerDetail {
     @JsonProperty("objectMapper")
     private List<ComponentDetail> objectMapper = new ArrayList<>();
 
+    /**
+     * Path of a separate file holding this container's "objectMapper" array, relative to the
+     * configuration that references it. Used instead of an inline "objectMapper".
+     */
+    @JsonProperty("include")
+    private String include;
+
+    /** The include resolved against the referencing configuration file */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String includePath;
+
+    /** Components read from the include on first use; never part of a config cache entry */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile List<ComponentDetail> includedComponents;
+
+    /** Lookup index built from the components on first use */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile ComponentIndex componentIndex;
+
     /**
      * Creates a ContainerDetail with the specified component mappings.
      *
@@ -31,32 +69,144 @@ public class ContainerDetail {
      * architectural container.
      *
      * @param objectMapper List of ComponentDetail objects representing all components in this container
+     * @param include      Optional component file replacing the inline list, loaded on first use
      */
     @JsonCreator
     public ContainerDetail(
-            @JsonProperty("objectMapper") List<ComponentDetail> objectMapper
+            @JsonProperty("objectMapper") List<ComponentDetail> objectMapper,
+            @JsonProperty("include") String include
     ) {
         this.objectMapper = (objectMapper == null) ? new ArrayList<>() : objectMapper;
+        this.include = include;
+    }
+
+    /**
+     * Resolves the include against the configuration file it was read from. Relative includes
+     * are resolved against that file's directory.
+     *
+     * @param configFile The configuration file that references this container
+     */
+    public void resolveInclude(File configFile) {
+        if (include != null) {
+            includePath = configFile.getAbsoluteFile().toPath().resolveSibling(include).normalize().toString();
+        }
+    }
+
+    /**
+     * @return true if the components are kept in a separate include file
+     */
+    @JsonIgnore
+    public boolean isIncluded() {
+        return include != null;
+    }
+
+    /**
+     * @return The include file, or null if the components are defined inline
+     */
+    @JsonIgnore
+    public File getIncludeFile() {
+        if (include == null) {
+            return null;
+        }
+        return new File(includePath != null ? includePath : include);
+    }
+
+    /**
+     * Returns the components of this container. Components kept in an include file are read,
+     * validated and cached on the first call.
+     *
+     * @return The configured components
+     * @throws UncheckedIOException if the include file cannot be read or is invalid
+     */
+    public List<ComponentDetail> getObjectMapper() {
+        if (include == null) {
+            return objectMapper;
+        }
+        try {
+            return loadIncludedComponents();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads and validates the include file, once. Later calls return the components read first.
+     *
+     * @return The components of the include file, or the inline components if there is no include
+     * @throws IOException if the include file cannot be read, is not valid JSON or fails schema validation
+     */
+    public List<ComponentDetail> loadIncludedComponents() throws IOException {
+        if (include == null) {
+            return objectMapper;
+        }
+
+        List<ComponentDetail> loaded = includedComponents;
+        if (loaded != null) {
+            return loaded;
+        }
+
+        synchronized (this) {
+            if (includedComponents == null) {
+                File includeFile = getIncludeFile();
+                JsonNode tree = ConfigJson.readTree(includeFile);
+                JsonSchemaValidator.validateDocument(tree, includeFile, INCLUDE_SCHEMA_FILE, INCLUDE_SCHEMA_RESOURCE,
+                        "Component include " + includeFile.getPath());
+
+                List<ComponentDetail> components = ConfigJson.treeToValue(tree, ContainerDetail.class).objectMapper;
+                System.out.println(" Loaded " + components.size() + " configured components from " + includeFile.getPath());
+                includedComponents = components;
+            }
+            return includedComponents;
+        }
+    }
+
+    /**
+     * Returns the lookup index of this container's components, built on the first call and
+     * reused afterwards.
+     *
+     * @return Immutable index by normalized component name; duplicate names are merged
+     * @throws UncheckedIOException If the include file cannot be read or is invalid
+     */
+    @JsonIgnore
+    public ComponentIndex getComponentIndex() {
+        ComponentIndex index = componentIndex;
+        if (index == null) {
+            synchronized (this) {
+                if (componentIndex == null) {
+                    componentIndex = ComponentIndex.of(getObjectMapper());
+                }
+                index = componentIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the inline components and drops the cached index.
+     *
+     * @param objectMapper The new component list
+     */
+    public void setObjectMapper(List<ComponentDetail> objectMapper) {
+        synchronized (this) {
+            this.objectMapper = objectMapper;
+            this.componentIndex = null;
+        }
     }
 
     /**
      * Creates a convenient lookup map from the component list.
      *
-     * This utility method transforms the internal list of ComponentDetail objects
-     * into a Map where component names serve as keys. This enables fast lookup
-     * of specific components by name during the C4 model generation process.
+     * This utility method exposes the component index as a Map where component names serve
+     * as keys. This enables fast lookup of specific components by name during the C4 model
+     * generation process. The map is built once and shared by all callers.
      *
-     * The mapping uses the ComponentDetail.componentName field as the key,
-     * so component names should be unique within each container.
+     * The mapping uses the ComponentDetail.componentName field as the key. Entries whose
+     * names differ only in case or surrounding whitespace are merged, see {@link ComponentIndex}.
      *
-     * @return Map where keys are component names and values are ComponentDetail objects
-     * @throws IllegalStateException If duplicate component names are found within the container
+     * @return Unmodifiable map where keys are component names and values are ComponentDetail objects
+     * @throws UncheckedIOException If the include file cannot be read or is invalid
      */
     public Map<String, ComponentDetail> getComponentMap() {
-        return objectMapper.stream()
-                .collect(Collectors.toMap(
-                        ComponentDetail::getComponentName,
-                        entry -> entry
-                ));
+        return getComponentIndex().asMap();
     }
 }
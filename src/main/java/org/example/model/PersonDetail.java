@@ -7,10 +7,14 @@ import lombok.ToString;
 
 import java.util.List;
 
+import java.io.Serializable;
+
 
 @Getter
 @ToString
-public class PersonDetail {
+public class PersonDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     /** The display name of the person/user/actor (e.g., "Customer", "Administrator", "API Client") */
     private final String name;
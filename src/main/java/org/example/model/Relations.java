@@ -4,11 +4,15 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
+import java.io.Serializable;
+
 
 @Getter
 @ToString
 @NoArgsConstructor
-public class Relations {
+public class Relations implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * The name of the target component that this relation points to.
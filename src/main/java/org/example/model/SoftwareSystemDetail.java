@@ -7,10 +7,14 @@ import lombok.ToString;
 
 import java.util.List;
 
+import java.io.Serializable;
+
 
 @Getter
 @ToString
-public class SoftwareSystemDetail {
+public class SoftwareSystemDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     /** The display name of the software system (should be business-oriented and recognizable) */
     private final String name;
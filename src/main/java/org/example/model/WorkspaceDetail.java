@@ -5,10 +5,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.io.Serializable;
+
 
 @Getter
 @ToString
-public class WorkspaceDetail {
+public class WorkspaceDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     /** The display name of the workspace/project (appears as the main title in diagrams) */
     private final String name;
@@ -7,60 +7,142 @@ import java.util.Map;
 
 
 public class ComponentChangeDetector {
-    
+
+    /**
+     * Outcome of comparing freshly scanned components with the latest stored snapshot.
+     * Nothing has been written yet; pass it to {@link #recordSnapshot(ChangeDetection)} once
+     * the run has succeeded.
+     */
+    public static class ChangeDetection {
+        public final ComponentSerializationService.ComponentSnapshot snapshot;
+        public final String contentHash;
+        public final String previousContentHash;
+        public final ComponentSerializationService.ComponentComparisonResult result;
+        public final String componentsDir;
+
+        ChangeDetection(ComponentSerializationService.ComponentSnapshot snapshot, String contentHash,
+                        String previousContentHash,
+                        ComponentSerializationService.ComponentComparisonResult result,
+                        String componentsDir) {
+            this.componentsDir = componentsDir;
+            this.snapshot = snapshot;
+            this.contentHash = contentHash;
+            this.previousContentHash = previousContentHash;
+            this.result = result;
+        }
+
+        /**
+         * @return true if the canonical content hash differs from the latest stored snapshot
+         */
+        public boolean contentChanged() {
+            return !contentHash.equals(previousContentHash);
+        }
+    }
 
     public static ComponentSerializationService.ComponentComparisonResult detectChanges(
             Map<String, Container> containers) throws Exception {
-        
-        System.out.println("\n=== COMPONENT CHANGE DETECTION WORKFLOW ===");
-        
-        // Step 1: Load previous snapshot
-        System.out.println("1. Loading previous component snapshot...");
-        ComponentSerializationService.ComponentSnapshot oldSnapshot = 
-                ComponentSerializationService.loadLatestSnapshot();
+        ChangeDetection detection = compareWithLatest(containers);
+        recordSnapshot(detection);
+        return detection.result;
+    }
+
+    /**
+     * Compares the scanned containers with the latest stored snapshot without writing anything.
+     *
+     * @param containers Map of container names to scanned Container objects
+     * @return The new snapshot, its content hash and the comparison result
+     * @throws IOException if the previous snapshot cannot be read
+     */
+    public static ChangeDetection compareWithLatest(Map<String, Container> containers) throws IOException {
+        return compareWithLatest(containers, ComponentSerializationService.COMPONENTS_DIR);
+    }
 
+    /**
+     * Compares the scanned containers with the latest snapshot of a given snapshot directory
+     * without writing anything.
+     *
+     * @param containers    Map of container names to scanned Container objects
+     * @param componentsDir Directory holding the snapshot history to compare with and record into
+     * @return The new snapshot, its content hash and the comparison result
+     * @throws IOException if the previous snapshot cannot be read
+     */
+    public static ChangeDetection compareWithLatest(Map<String, Container> containers,
+                                                    String componentsDir) throws IOException {
+        ComponentSerializationService.ComponentSnapshot oldSnapshot =
+                ComponentSerializationService.loadLatestSnapshot(componentsDir);
+        return compareWithSnapshot(containers, oldSnapshot, componentsDir);
+    }
 
+    /**
+     * Compares the scanned containers with a previous snapshot that was already loaded, for
+     * example concurrently with the scan, without writing anything.
+     *
+     * @param containers    Map of container names to scanned Container objects
+     * @param oldSnapshot   The latest snapshot of {@code componentsDir}, or null if there is none
+     * @param componentsDir Directory holding the snapshot history to record into
+     * @return The new snapshot, its content hash and the comparison result
+     */
+    public static ChangeDetection compareWithSnapshot(Map<String, Container> containers,
+                                                      ComponentSerializationService.ComponentSnapshot oldSnapshot,
+                                                      String componentsDir) {
 
-        
+        System.out.println("\n=== COMPONENT CHANGE DETECTION WORKFLOW ===");
+
+        // Step 1: Previous snapshot
+        System.out.println("1. Checking previous component snapshot...");
         if (oldSnapshot == null) {
             System.out.println("   No previous snapshot found - this will be the initial baseline");
         } else {
             System.out.println("   Previous snapshot loaded from: " + oldSnapshot.timestamp);
         }
-        
+
         // Step 2: Create new snapshot from current components
         System.out.println("2. Creating new component snapshot...");
-        ComponentSerializationService.ComponentSnapshot newSnapshot = 
+        ComponentSerializationService.ComponentSnapshot newSnapshot =
                 ComponentSerializationService.serializeComponents(containers);
         System.out.println("    New snapshot created with " +
                          getTotalComponentCount(newSnapshot) + " components");
 
-        if( ComponentSerializationService.snapshotsAreEqual( oldSnapshot, newSnapshot)) {
-            System.out.println(" No changes detected – skipping full diff.");
-            System.out.println("4. Saving new snapshot...");
-            ComponentSerializationService.saveSnapshotWithHistory(newSnapshot);
-            ComponentSerializationService.ComponentComparisonResult result =
-                    new ComponentSerializationService.ComponentComparisonResult(null ,null ,null);
+        String oldHash = oldSnapshot == null ? "" : ComponentSerializationService.snapshotContentHash(oldSnapshot);
+        String newHash = ComponentSerializationService.snapshotContentHash(newSnapshot);
+        System.out.println("Old content hash: " + oldHash);
+        System.out.println("New content hash: " + newHash);
 
-            return result ;
+        if (oldHash.equals(newHash)) {
+            System.out.println(" No changes detected – skipping full diff.");
+            return new ChangeDetection(newSnapshot, newHash, oldHash,
+                    new ComponentSerializationService.ComponentComparisonResult(null, null, null), componentsDir);
         }
+
         // Step 3: Compare snapshots
         System.out.println("3. Comparing snapshots for changes component By Component...");
-        ComponentSerializationService.ComponentComparisonResult result = 
+        ComponentSerializationService.ComponentComparisonResult result =
                 ComponentSerializationService.compareSnapshots(oldSnapshot, newSnapshot);
 
-
-        
-        // Step 4: Save new snapshot with history
-        System.out.println("4. Saving new snapshot...");
-        ComponentSerializationService.saveSnapshotWithHistory(newSnapshot);
-        
-        // Step 5: Print results
         ComponentSerializationService.printComparisonSummary(result);
-        
-        return result;
+
+        return new ChangeDetection(newSnapshot, newHash, oldHash, result, componentsDir);
+    }
+
+    /**
+     * Writes the snapshot of a change detection into the history, or records an unchanged
+     * run when the content hash matched the latest snapshot.
+     *
+     * @param detection The outcome of {@link #compareWithLatest(Map)}
+     * @throws IOException if the snapshot or run log cannot be written
+     */
+    public static void recordSnapshot(ChangeDetection detection) throws IOException {
+        if (detection.contentChanged()
+                || ComponentSerializationService.HistoryMode.current() == ComponentSerializationService.HistoryMode.FULL) {
+            System.out.println("4. Saving new snapshot...");
+            ComponentSerializationService.saveSnapshotWithHistory(
+                    detection.snapshot, detection.componentsDir, detection.contentHash);
+        } else {
+            System.out.println("4. Recording unchanged run (touch-only)...");
+            ComponentSerializationService.recordUnchangedRun(
+                    detection.componentsDir, detection.contentHash);
+        }
     }
-    
 
     /**
      * Performs change detection and returns whether any changes were found.
@@ -124,6 +206,9 @@ public class ComponentChangeDetector {
         if (!result.modifiedComponents.isEmpty()) {
             report.append(" MODIFIED COMPONENTS (").append(result.modifiedComponents.size()).append("):\n");
             result.modifiedComponents.forEach(comp -> report.append("  ~ ").append(comp).append("\n"));
+            result.changes.stream()
+                    .filter(change -> change.changeType == SnapshotDiffEngine.ChangeType.MODIFIED)
+                    .forEach(change -> report.append(describeChange(change)));
             report.append("\n");
         }
         
@@ -133,6 +218,23 @@ public class ComponentChangeDetector {
         return report.toString();
     }
     
+    /**
+     * Formats the field-level details of a modified component, one indented line per change.
+     *
+     * @param change The component change record to describe
+     * @return Multi-line description, empty if the record carries no field-level detail
+     */
+    public static String describeChange(SnapshotDiffEngine.ComponentChange change) {
+        StringBuilder details = new StringBuilder();
+        details.append("    ").append(change.componentKey).append(":\n");
+        change.fieldChanges.forEach(field -> details.append("      * ").append(field).append("\n"));
+        change.tagsAdded.forEach(tag -> details.append("      + tag ").append(tag).append("\n"));
+        change.tagsRemoved.forEach(tag -> details.append("      - tag ").append(tag).append("\n"));
+        change.relationshipsAdded.forEach(rel -> details.append("      + uses ").append(rel).append("\n"));
+        change.relationshipsRemoved.forEach(rel -> details.append("      - uses ").append(rel).append("\n"));
+        return details.toString();
+    }
+
     /**
      * Validates that containers have components before performing change detection.
      * 
@@ -2,8 +2,9 @@ package org.example.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.example.model.ComponentDetail;
+import org.example.utils.ConfigJson;
 
 import java.io.File;
 import java.util.Map;
@@ -11,6 +12,9 @@ import java.util.Map;
 
 public class ComponentMapperLoader {
 
+    private static final ObjectReader COMPONENT_MAP_READER =
+            ConfigJson.mapper().readerFor(new TypeReference<Map<String, ComponentDetail>>() {});
+
     /**
      * Loads a component mapping from a JSON file.
      * 
@@ -24,16 +28,12 @@ public class ComponentMapperLoader {
      * @throws IllegalStateException If the "componentMapper" node is missing or invalid
      */
     public static Map<String, ComponentDetail> loadComponentMap(String jsonPath) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(new File(jsonPath));
+        JsonNode root = ConfigJson.readTree(new File(jsonPath));
         JsonNode mapperNode = root.path("componentMapper");
         if (!mapperNode.isObject()) {
             throw new IllegalStateException("Missing or invalid 'componentMapper' node");
         }
 
-        return mapper.convertValue(
-                mapperNode,
-                new TypeReference<Map<String, ComponentDetail>>() {}
-        );
+        return COMPONENT_MAP_READER.readValue(mapperNode);
     }
 }
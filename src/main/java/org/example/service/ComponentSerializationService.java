@@ -1,5 +1,6 @@
 package org.example.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,11 +12,16 @@ import com.structurizr.model.Component;
 import com.structurizr.model.Container;
 import com.structurizr.model.Relationship;
 import lombok.ToString;
+import org.example.utils.AtomicFileWriter;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -30,9 +36,36 @@ public class ComponentSerializationService {
             .enable(SerializationFeature.INDENT_OUTPUT)
             .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
 
-    private static final String COMPONENTS_DIR = "discovered-components";
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    public static final String COMPONENTS_DIR = "discovered-components";
     private static final String SNAPSHOT_FILE_PREFIX = "components-snapshot-";
-    private static final String LATEST_SNAPSHOT_FILE = "components-latest.json";
+    public static final String LATEST_SNAPSHOT_FILE = "components-latest.json";
+    private static final String RUN_LOG_FILE = "snapshot-runs.log";
+
+    /** System property selecting the {@link HistoryMode} ("change-points" or "full") */
+    public static final String HISTORY_MODE_PROPERTY = "c4.snapshot.history";
+
+    /**
+     * Controls what a run with an unchanged snapshot writes to the history.
+     */
+    public enum HistoryMode {
+        /** Every run writes a timestamped snapshot and replaces the latest one */
+        FULL,
+        /** Only runs that change the snapshot write files; unchanged runs are just appended to the run log */
+        CHANGE_POINTS;
+
+        /**
+         * Resolves the mode from the {@value #HISTORY_MODE_PROPERTY} system property, defaulting to CHANGE_POINTS.
+         */
+        public static HistoryMode current() {
+            String value = System.getProperty(HISTORY_MODE_PROPERTY, "change-points");
+            return "full".equalsIgnoreCase(value.trim()) ? FULL : CHANGE_POINTS;
+        }
+    }
 
     /**
      * Data structure representing a serialized component snapshot.
@@ -59,6 +92,8 @@ public class ComponentSerializationService {
         public String containerDescription;
         public String containerTechnology;
         public int componentCount;
+        /** Canonical hash of this container's content, lets readers skip unchanged containers */
+        public String contentHash;
         public Map<String, SerializedComponent> components;
 
         public ContainerSnapshot() {
@@ -107,15 +142,25 @@ public class ComponentSerializationService {
         public final Set<String> newComponents;
         public final Set<String> removedComponents;
         public final Set<String> modifiedComponents;
+        /** Field-level change records, empty when the result was built from keys only */
+        public final List<SnapshotDiffEngine.ComponentChange> changes;
         public final boolean hasChanges;
 
         public ComponentComparisonResult(Set<String> newComponents,
                                          Set<String> removedComponents,
                                          Set<String> modifiedComponents) {
+            this(newComponents, removedComponents, modifiedComponents, null);
+        }
+
+        public ComponentComparisonResult(Set<String> newComponents,
+                                         Set<String> removedComponents,
+                                         Set<String> modifiedComponents,
+                                         List<SnapshotDiffEngine.ComponentChange> changes) {
             // Coalesce nulls to empty sets
             this.newComponents      = newComponents      != null ? newComponents      : Collections.emptySet();
             this.removedComponents  = removedComponents  != null ? removedComponents  : Collections.emptySet();
             this.modifiedComponents = modifiedComponents != null ? modifiedComponents : Collections.emptySet();
+            this.changes            = changes            != null ? changes            : Collections.emptyList();
 
             this.hasChanges =
                     !this.newComponents.isEmpty() ||
@@ -143,26 +188,69 @@ public class ComponentSerializationService {
         ComponentSnapshot snapshot = new ComponentSnapshot();
 
         for (Map.Entry<String, Container> entry : containers.entrySet()) {
-            String containerName = entry.getKey();
-            Container container = entry.getValue();
-
-            ContainerSnapshot containerSnapshot = new ContainerSnapshot();
-            containerSnapshot.containerName = container.getName();
-            containerSnapshot.containerDescription = container.getDescription();
-            containerSnapshot.containerTechnology = container.getTechnology();
-            containerSnapshot.componentCount = container.getComponents().size();
-
-            // Serialize each component in the container
-            for (Component component : container.getComponents()) {
-                SerializedComponent serializedComponent = serializeComponent(component);
-                containerSnapshot.components.put(component.getName(), serializedComponent);
-            }
+            snapshot.containers.put(entry.getKey(), serializeContainer(entry.getValue()));
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Serializes a single container with all of its components.
+     *
+     * @param container The Structurizr Container to serialize
+     * @return ContainerSnapshot including its content hash
+     */
+    public static ContainerSnapshot serializeContainer(Container container) {
+        ContainerSnapshot containerSnapshot = new ContainerSnapshot();
+        containerSnapshot.containerName = container.getName();
+        containerSnapshot.containerDescription = container.getDescription();
+        containerSnapshot.containerTechnology = container.getTechnology();
+        containerSnapshot.componentCount = container.getComponents().size();
+
+        // Serialize each component in the container
+        for (Component component : container.getComponents()) {
+            SerializedComponent serializedComponent = serializeComponent(component);
+            containerSnapshot.components.put(component.getName(), serializedComponent);
+        }
 
-            snapshot.containers.put(containerName, containerSnapshot);
+        containerSnapshot.contentHash = containerContentHash(containerSnapshot);
+        return containerSnapshot;
+    }
 
+    /**
+     * Recreates the components of a container snapshot inside a container of another workspace,
+     * including their tags, properties and the relationships between them.
+     *
+     * <p>This is the inverse of {@link #serializeContainer(Container)} and lets a cached scan
+     * result be replayed into a freshly built workspace without scanning classes again.</p>
+     *
+     * @param container The (empty) container to add the components to
+     * @param snapshot  The serialized container to restore
+     */
+    public static void restoreComponents(Container container, ContainerSnapshot snapshot) {
+        for (SerializedComponent serialized : snapshot.components.values()) {
+            Component component = container.addComponent(serialized.name, serialized.description, serialized.technology);
+            if (serialized.tags != null) {
+                component.addTags(serialized.tags.toArray(new String[0]));
+            }
+            if (serialized.metadata != null) {
+                serialized.metadata.forEach(component::addProperty);
+            }
         }
 
-        return snapshot;
+        for (SerializedComponent serialized : snapshot.components.values()) {
+            Component source = container.getComponentWithName(serialized.name);
+            for (SerializedRelationship serializedRel : serialized.relationships) {
+                Component target = container.getComponentWithName(serializedRel.target);
+                if (target == null) {
+                    continue;
+                }
+                Relationship relationship = source.uses(target, serializedRel.description);
+                if (relationship != null && serializedRel.properties != null) {
+                    serializedRel.properties.forEach(relationship::addProperty);
+                }
+            }
+        }
     }
 
     /**
@@ -210,16 +298,17 @@ public class ComponentSerializationService {
     /**
      * Saves a component snapshot to a JSON file.
      *
+     * <p>The snapshot is streamed into a temporary file that is synced and then renamed over
+     * the target, so an interrupted run never leaves a truncated snapshot behind.</p>
+     *
      * @param snapshot   The ComponentSnapshot to save
      * @param outputPath The path where to save the snapshot file
      * @throws IOException if file writing fails
      */
     public static void saveSnapshot(ComponentSnapshot snapshot, String outputPath) throws IOException {
-        File outputFile = new File(outputPath);
-        outputFile.getParentFile().mkdirs(); // Create directories if they don't exist
-
-        objectMapper.writeValue(outputFile, snapshot);
-        System.out.println(" Component snapshot saved to: " + outputFile.getAbsolutePath());
+        Path outputFile = Path.of(outputPath).toAbsolutePath();
+        AtomicFileWriter.write(outputFile, out -> objectMapper.writeValue(out, snapshot));
+        System.out.println(" Component snapshot saved to: " + outputFile);
     }
 
     /**
@@ -229,24 +318,85 @@ public class ComponentSerializationService {
      * @throws IOException if file writing fails
      */
     public static void saveSnapshotWithHistory(ComponentSnapshot snapshot) throws IOException {
-        // Create components directory if it doesn't exist
-        File componentsDir = new File(COMPONENTS_DIR);
-        componentsDir.mkdirs();
+        saveSnapshotWithHistory(snapshot, COMPONENTS_DIR);
+    }
+
+    /**
+     * Saves the current snapshot as the latest snapshot and creates a timestamped backup
+     * in the given snapshot directory.
+     *
+     * <p>The snapshot is serialized exactly once into a synced temporary file, renamed to its
+     * timestamped name, and then hard-linked as the latest snapshot. Both names are replaced
+     * atomically, so a killed job leaves either the previous or the new snapshot in place.</p>
+     *
+     * @param snapshot     The ComponentSnapshot to save
+     * @param componentsDir Directory holding the snapshot history
+     * @throws IOException if file writing fails
+     */
+    public static void saveSnapshotWithHistory(ComponentSnapshot snapshot, String componentsDir) throws IOException {
+        saveSnapshotWithHistory(snapshot, componentsDir, snapshotContentHash(snapshot));
+    }
+
+    /**
+     * Saves the snapshot with history, reusing an already computed content hash for the run log.
+     *
+     * @param snapshot      The ComponentSnapshot to save
+     * @param componentsDir Directory holding the snapshot history
+     * @param contentHash   Canonical hash of the snapshot, as returned by {@link #snapshotContentHash}
+     * @throws IOException if file writing fails
+     */
+    public static void saveSnapshotWithHistory(ComponentSnapshot snapshot, String componentsDir,
+                                               String contentHash) throws IOException {
+        Path directory = Path.of(componentsDir).toAbsolutePath();
 
-        // Save timestamped snapshot
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String timestampedFile = COMPONENTS_DIR + "/" + SNAPSHOT_FILE_PREFIX + timestamp + ".json";
-        saveSnapshot(snapshot, timestampedFile);
+        Path timestampedFile = directory.resolve(SNAPSHOT_FILE_PREFIX + timestamp + ".json");
+        Path latestFile = directory.resolve(LATEST_SNAPSHOT_FILE);
+
+        // The stored input fingerprint describes the snapshot being replaced
+        InputFingerprint.invalidate(componentsDir);
 
-        // Save as latest snapshot
-        String latestFile = COMPONENTS_DIR + "/" + LATEST_SNAPSHOT_FILE;
-        saveSnapshot(snapshot, latestFile);
+        // Serialize once, then publish under both names
+        Path temp = AtomicFileWriter.writeTemp(directory, LATEST_SNAPSHOT_FILE,
+                out -> objectMapper.writeValue(out, snapshot));
+        AtomicFileWriter.moveAtomically(temp, timestampedFile);
+        AtomicFileWriter.linkAtomically(timestampedFile, latestFile);
+        appendRunLog(directory, contentHash, "changed", timestampedFile.getFileName().toString());
+        SnapshotManifest.append(componentsDir, timestampedFile.getFileName().toString(), snapshot, contentHash);
 
         System.out.println(" Component snapshots saved:");
         System.out.println("  - Latest: " + latestFile);
         System.out.println("  - Timestamped: " + timestampedFile);
     }
 
+    /**
+     * Records a run whose snapshot is identical to the latest one, without re-serializing it.
+     *
+     * <p>Only a single line (timestamp, content hash, latest file) is appended to the run log,
+     * so no-op runs cost a few bytes of I/O instead of two full snapshot files.</p>
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @param contentHash   Canonical hash of the unchanged snapshot
+     * @throws IOException if the run log cannot be written
+     */
+    public static void recordUnchangedRun(String componentsDir, String contentHash) throws IOException {
+        Path directory = Path.of(componentsDir).toAbsolutePath();
+        appendRunLog(directory, contentHash, "unchanged", LATEST_SNAPSHOT_FILE);
+        System.out.println(" Snapshot unchanged - run recorded in " + directory.resolve(RUN_LOG_FILE));
+    }
+
+    /**
+     * Appends one tab-separated line to the run log: timestamp, hash, status and snapshot file.
+     */
+    private static void appendRunLog(Path directory, String contentHash, String status, String snapshotFile)
+            throws IOException {
+        Files.createDirectories(directory);
+        String line = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\t" +
+                contentHash + "\t" + status + "\t" + snapshotFile + System.lineSeparator();
+        Files.writeString(directory.resolve(RUN_LOG_FILE), line, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
     /**
      * Loads a component snapshot from a JSON file.
      *
@@ -264,6 +414,36 @@ public class ComponentSerializationService {
             ComponentSnapshot snapshot = objectMapper.readValue(file, ComponentSnapshot.class);
             System.out.println(" Component snapshot loaded from: " + filePath);
             return snapshot;
+        } catch (IOException e) {
+            // An existing but unreadable snapshot is not the same as no snapshot: make it visible
+            System.err.println(" Warning: snapshot " + filePath + " exists but could not be read" +
+                    " (corrupt or truncated), treating as missing: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads only the selected containers of a snapshot file.
+     *
+     * <p>The file is streamed and every container not listed is skipped token-wise,
+     * so per-container reports do not pay for materializing the whole snapshot.</p>
+     *
+     * @param filePath      Path to the snapshot file
+     * @param containerKeys Container keys to materialize
+     * @return ComponentSnapshot holding only the selected containers, or null if the file doesn't exist or can't be read
+     */
+    public static ComponentSnapshot loadSnapshot(String filePath, Set<String> containerKeys) {
+        try {
+            File file = new File(filePath);
+            if (!file.exists()) {
+                System.out.println("Snapshot file not found: " + filePath);
+                return null;
+            }
+
+            ComponentSnapshot snapshot = SnapshotStreamReader.loadContainers(file, containerKeys);
+            System.out.println(" Component snapshot loaded from: " + filePath +
+                    " (" + snapshot.containers.size() + " of " + containerKeys.size() + " requested containers)");
+            return snapshot;
         } catch (IOException e) {
             System.out.println(" Failed to load snapshot from " + filePath + ": " + e.getMessage());
             return null;
@@ -276,7 +456,17 @@ public class ComponentSerializationService {
      * @return ComponentSnapshot object, or null if no snapshot exists
      */
     public static ComponentSnapshot loadLatestSnapshot() {
-        String latestFile = COMPONENTS_DIR + "/" + LATEST_SNAPSHOT_FILE;
+        return loadLatestSnapshot(COMPONENTS_DIR);
+    }
+
+    /**
+     * Loads the latest component snapshot from the given snapshot directory.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @return ComponentSnapshot object, or null if no snapshot exists
+     */
+    public static ComponentSnapshot loadLatestSnapshot(String componentsDir) {
+        String latestFile = componentsDir + "/" + LATEST_SNAPSHOT_FILE;
         return loadSnapshot(latestFile);
     }
 
@@ -365,148 +555,66 @@ public class ComponentSerializationService {
 
 
 
-    public static String snapshotContentHash(ComponentSnapshot snap) throws Exception {
-
-         final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
-                 .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
-                 .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
-                 .build();
+    public static String snapshotContentHash(ComponentSnapshot snap) {
         ObjectNode root = CANONICAL_MAPPER.valueToTree(snap);
 
         // 2) Remove volatile fields
         root.remove("timestamp");
         root.remove("generatedBy");
         root.remove("version");
-
-        // 3) Recursively sort everything
-        sortRecursively(root);
-
-        // 4) Serialize and hash
-        String canon = CANONICAL_MAPPER.writeValueAsString(root);
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] digest = md.digest(canon.getBytes(StandardCharsets.UTF_8));
-
-        // Hex‑encode
-        StringBuilder sb = new StringBuilder(digest.length * 2);
-        for (byte b : digest) {
-            sb.append(String.format("%02x", b));
+        JsonNode containers = root.get("containers");
+        if (containers != null) {
+            containers.forEach(container -> ((ObjectNode) container).remove("contentHash"));
         }
-        return sb.toString();
-    }
-    /**
-     * Compares two component snapshots to identify changes.
-     *
-     * @param oldSnapshot Previous snapshot (can be null)
-     * @param newSnapshot Current snapshot
-     * @return ComponentComparisonResult containing the differences
-     */
-    public static ComponentComparisonResult compareSnapshots(ComponentSnapshot oldSnapshot, ComponentSnapshot newSnapshot) {
-        Set<String> newComponents = new TreeSet<>();
-        Set<String> removedComponents = new TreeSet<>();
-        Set<String> modifiedComponents = new TreeSet<>();
-
-        if (oldSnapshot == null) {
-            // All components are new
-            for (ContainerSnapshot container : newSnapshot.containers.values()) {
-                for (String componentName : container.components.keySet()) {
-                    newComponents.add(container.containerName + "::" + componentName);
-                }
-            }
-        } else {
-            // Compare containers and components
-            Map<String, SerializedComponent> oldComponentsFlat = flattenComponents(oldSnapshot);
-            Map<String, SerializedComponent> newComponentsFlat = flattenComponents(newSnapshot);
-
-            // Find new components
-            for (String componentKey : newComponentsFlat.keySet()) {
-                if (!oldComponentsFlat.containsKey(componentKey)) {
-                    newComponents.add(componentKey);
-                }
-            }
 
-            // Find removed components
-            for (String componentKey : oldComponentsFlat.keySet()) {
-                if (!newComponentsFlat.containsKey(componentKey)) {
-                    removedComponents.add(componentKey);
-                }
-            }
-
-            // Find modified components
-            for (String componentKey : newComponentsFlat.keySet()) {
-                if (oldComponentsFlat.containsKey(componentKey)) {
-                    SerializedComponent oldComp = oldComponentsFlat.get(componentKey);
-                    SerializedComponent newComp = newComponentsFlat.get(componentKey);
-
-                    if (!componentsEqual(oldComp, newComp)) {
-                        modifiedComponents.add(componentKey);
-                    }
-                }
-            }
-        }
-
-        return new ComponentComparisonResult(newComponents, removedComponents, modifiedComponents);
+        // 3) Recursively sort everything, 4) serialize and hash
+        return canonicalHash(root);
     }
 
     /**
-     * Flattens component hierarchy into a single map with container::component keys.
+     * Computes the canonical hash of a single container, independent of component,
+     * tag and relationship ordering.
+     *
+     * @param container The container snapshot to hash
+     * @return Hex-encoded SHA-256 of the canonical container content
      */
-    private static Map<String, SerializedComponent> flattenComponents(ComponentSnapshot snapshot) {
-        Map<String, SerializedComponent> flattened = new HashMap<>();
-
-        for (Map.Entry<String, ContainerSnapshot> containerEntry : snapshot.containers.entrySet()) {
-            String containerName = containerEntry.getKey();
-            ContainerSnapshot container = containerEntry.getValue();
+    public static String containerContentHash(ContainerSnapshot container) {
+        ObjectNode root = CANONICAL_MAPPER.valueToTree(container);
+        root.remove("contentHash");
+        return canonicalHash(root);
+    }
 
-            for (Map.Entry<String, SerializedComponent> componentEntry : container.components.entrySet()) {
-                String componentName = componentEntry.getKey();
-                SerializedComponent component = componentEntry.getValue();
+    private static String canonicalHash(ObjectNode root) {
+        sortRecursively(root);
 
-                String flatKey = containerName + "::" + componentName;
-                flattened.put(flatKey, component);
+        try {
+            String canon = CANONICAL_MAPPER.writeValueAsString(root);
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(canon.getBytes(StandardCharsets.UTF_8));
+
+            // Hex‑encode
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
             }
+            return sb.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to compute canonical hash", e);
         }
-
-        return flattened;
     }
 
     /**
-     * Compares two serialized components for equality.
-     */
-    private static boolean componentsEqual(SerializedComponent comp1, SerializedComponent comp2) {
-        return Objects.equals(comp1.name, comp2.name) &&
-                Objects.equals(comp1.description, comp2.description) &&
-                Objects.equals(comp1.technology, comp2.technology) &&
-                Objects.equals(comp1.tags, comp2.tags) &&
-                Objects.equals(comp1.type, comp2.type) &&
-                relationshipsEqual(comp1.relationships, comp2.relationships) &&
-                Objects.equals(comp1.metadata, comp2.metadata);
-    }
-
-    /**
-     * Compares two relationship lists for equality.
+     * Compares two component snapshots to identify changes.
+     *
+     * <p>Delegates to {@link SnapshotDiffEngine}, which diffs containers in parallel and
+     * leaves both snapshots untouched.</p>
+     *
+     * @param oldSnapshot Previous snapshot (can be null)
+     * @param newSnapshot Current snapshot
+     * @return ComponentComparisonResult containing the differences
      */
-    private static boolean relationshipsEqual(List<SerializedRelationship> rels1, List<SerializedRelationship> rels2) {
-        if (rels1.size() != rels2.size()) {
-            return false;
-        }
-
-        // Sort relationships by target for consistent comparison
-        rels1.sort(Comparator.comparing(r -> r.target));
-        rels2.sort(Comparator.comparing(r -> r.target));
-
-        for (int i = 0; i < rels1.size(); i++) {
-            SerializedRelationship r1 = rels1.get(i);
-            SerializedRelationship r2 = rels2.get(i);
-
-            if (!Objects.equals(r1.target, r2.target) ||
-                    !Objects.equals(r1.description, r2.description) ||
-                    !Objects.equals(r1.type, r2.type) ||
-                    !Objects.equals(r1.properties, r2.properties)) {
-                return false;
-            }
-        }
-
-        return true;
+    public static ComponentComparisonResult compareSnapshots(ComponentSnapshot oldSnapshot, ComponentSnapshot newSnapshot) {
+        return SnapshotDiffEngine.diff(oldSnapshot, newSnapshot).toComparisonResult();
     }
 
     /**
@@ -537,6 +645,9 @@ public class ComponentSerializationService {
         if (!result.modifiedComponents.isEmpty()) {
             System.out.println("\n MODIFIED COMPONENTS (" + result.modifiedComponents.size() + "):");
             result.modifiedComponents.forEach(comp -> System.out.println("  ~ " + comp));
+            result.changes.stream()
+                    .filter(change -> change.changeType == SnapshotDiffEngine.ChangeType.MODIFIED)
+                    .forEach(change -> System.out.print(ComponentChangeDetector.describeChange(change)));
         }
 
         System.out.println("\nTotal changes: " +
@@ -3,6 +3,7 @@ package org.example.service;
 import com.structurizr.component.ComponentFinder;
 import com.structurizr.component.ComponentFinderBuilder;
 import com.structurizr.component.ComponentFinderStrategyBuilder;
+import com.structurizr.component.Type;
 import com.structurizr.component.matcher.TypeMatcher;
 import com.structurizr.model.Component;
 import com.structurizr.model.Container;
@@ -10,100 +11,155 @@ import org.example.c4.C4ModelGenerator;
 import org.example.utils.StrategyFactory;
 import org.example.config.StrategyConfig;
 import org.example.config.StrategyConfiguration;
-import org.example.model.ComponentDetail;
+import org.example.config.StrategyPlan;
+import org.example.model.ComponentIndex;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 
 public class ConfigurableComponentScanner {
     
+    /** Component property naming the strategy that discovered the component */
+    public static final String STRATEGY_PROPERTY = "component.strategy";
+    
     private final StrategyConfiguration strategyConfiguration;
     
     /**
      * Constructs a scanner with the specified strategy configuration.
      * 
+     * <p>Strategies that were not compiled while loading (for example a configuration taken
+     * from the config cache or built in code) are compiled here, before any scan starts.</p>
+     * 
      * @param strategyConfiguration The loaded strategy configuration containing all
      *                            discovery strategies and global settings. Must not be null.
-     * @throws IllegalArgumentException if strategyConfiguration is null
+     * @throws IllegalArgumentException if strategyConfiguration is null or a strategy is invalid
      */
     public ConfigurableComponentScanner(StrategyConfiguration strategyConfiguration) {
+        if (strategyConfiguration == null) {
+            throw new IllegalArgumentException("Strategy configuration is required");
+        }
+        StrategyFactory.compileStrategies(strategyConfiguration);
         this.strategyConfiguration = strategyConfiguration;
     }
     
 
-    public void scanContainer(Container container, String containerName, Map<String, ComponentDetail> componentMap) {
-        // Get strategies for this container
-        List<StrategyConfig> strategies = strategyConfiguration.getStrategiesForContainer(containerName);
+    public void scanContainer(Container container, String containerName, ComponentIndex componentIndex) {
+        discoverComponents(container, containerName);
+
+        // Apply component enrichment if provided
+        if (componentIndex != null && !componentIndex.isEmpty()) {
+            C4ModelGenerator.assignRealtionFromJson(container, componentIndex);
+        }
+    }
+
+    /**
+     * Discovers the components of a container with its configured strategies, without
+     * applying any enrichment from the component configuration.
+     *
+     * <p>The strategies are taken from the configuration's {@link StrategyPlan}, cheapest first,
+     * and run by a single component finder, so the container's class directory is read once.</p>
+     *
+     * @param container     The container to add discovered components to
+     * @param containerName The configuration key of the container
+     */
+    public void discoverComponents(Container container, String containerName) {
+        StrategyPlan.ContainerPlan plan = strategyConfiguration.getPlan().forContainer(containerName);
         
-        if (strategies.isEmpty()) {
+        if (plan == null || plan.strategies.isEmpty()) {
             System.out.println("No strategies configured for container: " + containerName);
             return;
         }
         
-        // Get base path for this container
-        String basePath = strategyConfiguration.getGlobalConfig().getBasePath(containerName);
-        if (basePath == null) {
+        if (plan.basePath == null) {
             System.out.println("No base path configured for container: " + containerName);
             return;
         }
         
-        File scanPath = new File(basePath);
+        File scanPath = new File(plan.basePath);
         if (!scanPath.exists()) {
-            System.out.println("Warning: Path " + basePath + " doesn't exist. Skipping container: " + containerName);
+            System.out.println("Warning: Path " + plan.basePath + " doesn't exist. Skipping container: " + containerName);
             return;
         }
         
-        // Apply each strategy
-        for (StrategyConfig strategyConfig : strategies) {
-            try {
-                applyStrategy(container, scanPath, strategyConfig);
-            } catch (Exception e) {
-                System.out.println("Strategy '" + strategyConfig.getName() + "' failed: " + e.getMessage());
-                e.printStackTrace();
+        try {
+            applyStrategies(container, scanPath, plan);
+        } catch (Exception e) {
+            System.out.println("Strategies for container '" + containerName + "' failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Runs all strategies of a container plan with one component finder.
+     *
+     * <p>Each class is claimed by the first strategy that matches it. Because the plan orders
+     * strategies by cost, classes already matched by name are never inspected by the
+     * annotation-based strategies that follow.</p>
+     */
+    void applyStrategies(Container container, File scanPath, StrategyPlan.ContainerPlan plan) {
+        List<String> names = plan.strategies.stream().map(StrategyConfig::getName).toList();
+        System.out.println("Applying strategies: " + String.join(", ", names));
+        
+        Map<String, ClaimingTypeMatcher> claims = new HashMap<>();
+        ComponentFinderBuilder builder = new ComponentFinderBuilder()
+                .forContainer(container)
+                .fromClasses(scanPath);
+        
+        for (StrategyConfig strategyConfig : plan.strategies) {
+            // Use the matcher compiled up front; strategies added after loading are validated and compiled here
+            TypeMatcher matcher = strategyConfig.getCompiledMatcher();
+            if (matcher == null) {
+                StrategyFactory.validateStrategyConfig(strategyConfig);
+                matcher = StrategyFactory.createMatcher(strategyConfig);
             }
+            
+            builder.withStrategy(
+                    new ComponentFinderStrategyBuilder()
+                            .matchedBy(new ClaimingTypeMatcher(matcher, claims))
+                            .withTechnology(plan.technology)
+                            .forEach(component -> processDiscoveredComponent(component, strategyConfig))
+                            .build()
+            );
         }
         
-        // Apply component enrichment if provided
-        if (componentMap != null && !componentMap.isEmpty()) {
-            C4ModelGenerator.assignRealtionFromJson(container, componentMap);
+        try {
+            ComponentFinder finder = builder.build();
+            finder.run();
+            System.out.println("Successfully applied strategies: " + String.join(", ", names));
+            
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to apply strategies: " + String.join(", ", names), e);
         }
     }
     
- void applyStrategy(Container container, File scanPath, StrategyConfig strategyConfig) {
-        System.out.println("Applying strategy: " + strategyConfig.getName());
-        
-        // Validate strategy configuration
-        StrategyFactory.validateStrategyConfig(strategyConfig);
+    /**
+     * Matches a class only if no earlier strategy of the same finder run has matched it.
+     */
+    private static class ClaimingTypeMatcher implements TypeMatcher {
         
-        // Create TypeMatcher from configuration
-        TypeMatcher matcher = StrategyFactory.createMatcher(strategyConfig);
+        private final TypeMatcher delegate;
+        /** Strategy matcher that claimed each class, shared by all strategies of one finder run */
+        private final Map<String, ClaimingTypeMatcher> claims;
         
-        // Determine technology from global config or fallback
-        String technology = strategyConfiguration.getGlobalConfig().getDefaultTechnology(strategyConfig.getContainerMapping());
-        if (technology == null) {
-            technology = "Java"; // fallback
+        ClaimingTypeMatcher(TypeMatcher delegate, Map<String, ClaimingTypeMatcher> claims) {
+            this.delegate = delegate;
+            this.claims = claims;
         }
         
-        try {
-            ComponentFinder finder = new ComponentFinderBuilder()
-                    .forContainer(container)
-                    .fromClasses(scanPath)
-                    .withStrategy(
-                            new ComponentFinderStrategyBuilder()
-                                    .matchedBy(matcher)
-                                    .withTechnology(technology)
-                                    .forEach(component -> processDiscoveredComponent(component, strategyConfig))
-                                    .build()
-                    )
-                    .build();
-            
-            finder.run();
-            System.out.println("Successfully applied strategy: " + strategyConfig.getName());
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to apply strategy: " + strategyConfig.getName(), e);
+        @Override
+        public boolean matches(Type type) {
+            ClaimingTypeMatcher owner = claims.get(type.getFullyQualifiedName());
+            if (owner != null) {
+                return owner == this;
+            }
+            if (delegate.matches(type)) {
+                claims.put(type.getFullyQualifiedName(), this);
+                return true;
+            }
+            return false;
         }
     }
     
@@ -130,6 +186,7 @@ public class ConfigurableComponentScanner {
         
         // Add strategy-specific tags
         addStrategyTags(component, strategyConfig);
+        component.addProperty(STRATEGY_PROPERTY, strategyConfig.getName());
         
         System.out.println("Discovered component: " + component.getName() + " using strategy: " + strategyConfig.getName());
     }
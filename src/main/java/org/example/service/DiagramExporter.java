@@ -0,0 +1,388 @@
+package org.example.service;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.CustomElement;
+import com.structurizr.model.Element;
+import com.structurizr.model.Person;
+import com.structurizr.model.Relationship;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.view.ComponentView;
+import com.structurizr.view.ContainerView;
+import com.structurizr.view.CustomView;
+import com.structurizr.view.ElementView;
+import com.structurizr.view.RelationshipView;
+import com.structurizr.view.View;
+import com.structurizr.view.ViewSet;
+import org.example.utils.AtomicFileWriter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders the views of a workspace as PlantUML (C4-PlantUML), Mermaid (C4 diagrams) and
+ * Graphviz DOT text.
+ *
+ * <p>The exporter walks the system context, container, component and custom views of the
+ * {@link ViewSet} directly. Each view is rendered on its own and streamed through the buffered
+ * writer of {@link AtomicFileWriter} into {@code <view key>.<extension>}; no copy of the model
+ * and no intermediate JSON is created. A rendered file identical to the existing one is
+ * discarded, so unchanged diagrams keep their modification time.</p>
+ *
+ * <p>The formats are selected with {@value #FORMATS_PROPERTY}, a comma-separated list of
+ * {@code plantuml}, {@code mermaid} and {@code dot}. Diagrams are written to
+ * {@code <export>}{@value #DIRECTORY_SUFFIX}.</p>
+ */
+public class DiagramExporter {
+
+    public static final String FORMATS_PROPERTY = "c4.export.diagrams";
+    /** Appended to the export name (without extensions) to name the diagram directory */
+    public static final String DIRECTORY_SUFFIX = "-diagrams";
+    /** Content hash and formats of the export the diagrams were rendered from */
+    public static final String HASH_FILE = "diagrams.sha256";
+
+    /**
+     * Supported diagram formats.
+     */
+    public enum Format {
+        PLANTUML("puml"),
+        MERMAID("mmd"),
+        DOT("dot");
+
+        public final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Reads the formats from {@value #FORMATS_PROPERTY}.
+     *
+     * @return The requested formats; empty if the property is not set
+     * @throws IllegalArgumentException if the property names an unknown format
+     */
+    public static Set<Format> configuredFormats() {
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        for (String name : System.getProperty(FORMATS_PROPERTY, "").split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                formats.add(Format.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown diagram format '" + name.trim() + "' in " + FORMATS_PROPERTY +
+                        " (supported: plantuml, mermaid, dot)");
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Renders every system context, container, component and custom view in each format.
+     *
+     * @param views       The view set to render
+     * @param directory   Directory for the diagram files, created if missing
+     * @param formats     The formats to render
+     * @param contentHash Hash of the workspace export the views belong to; if the diagrams in
+     *                    {@code directory} were rendered from the same hash and formats, nothing is rendered
+     * @return Number of diagram files created or changed
+     * @throws IOException if a diagram cannot be written
+     */
+    public static int export(ViewSet views, Path directory, Set<Format> formats, String contentHash) throws IOException {
+        String marker = contentHash + "|" + formats;
+        Path hashFile = directory.resolve(HASH_FILE);
+        if (Files.exists(hashFile) && marker.equals(Files.readString(hashFile, StandardCharsets.UTF_8).trim())) {
+            return 0;
+        }
+        Files.createDirectories(directory);
+
+        List<View> allViews = new ArrayList<>();
+        allViews.addAll(views.getSystemContextViews());
+        allViews.addAll(views.getContainerViews());
+        allViews.addAll(views.getComponentViews());
+        allViews.addAll(views.getCustomViews());
+        allViews.sort(Comparator.comparing(View::getKey));
+
+        Set<String> fileNames = new HashSet<>();
+        int written = 0;
+        for (View view : allViews) {
+            for (Format format : formats) {
+                String fileName = WorkspaceExporter.uniqueFileName(view.getKey(), "." + format.extension, fileNames);
+                if (writeDiagram(view, format, directory, fileName)) {
+                    written++;
+                }
+            }
+        }
+
+        // Diagrams of removed views, or of formats no longer requested
+        Set<String> extensions = Stream.of(Format.values()).map(f -> "." + f.extension).collect(Collectors.toSet());
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (!fileNames.contains(name) && extensions.stream().anyMatch(name::endsWith)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        byte[] content = (marker + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        AtomicFileWriter.write(hashFile, out -> out.write(content));
+        return written;
+    }
+
+    /**
+     * Streams one diagram into a temporary file and publishes it unless it equals the existing file.
+     *
+     * @return true if the diagram file was created or changed
+     */
+    private static boolean writeDiagram(View view, Format format, Path directory, String fileName) throws IOException {
+        Path temp = AtomicFileWriter.writeTemp(directory, fileName, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            render(view, format, writer);
+            writer.flush();
+        });
+
+        Path target = directory.resolve(fileName);
+        if (Files.exists(target) && Files.mismatch(temp, target) == -1) {
+            Files.delete(temp);
+            return false;
+        }
+        AtomicFileWriter.moveAtomically(temp, target);
+        return true;
+    }
+
+    /**
+     * Renders one view in the given format.
+     *
+     * @param view   A system context, container, component or custom view
+     * @param format The diagram format
+     * @param out    Receives the diagram text
+     * @throws IOException if writing fails
+     */
+    public static void render(View view, Format format, Writer out) throws IOException {
+        switch (format) {
+            case PLANTUML, MERMAID -> renderC4(view, format, out);
+            case DOT -> renderDot(view, out);
+        }
+    }
+
+    /**
+     * Renders C4 macros, shared by C4-PlantUML and Mermaid C4 diagrams.
+     */
+    private static void renderC4(View view, Format format, Writer out) throws IOException {
+        String level = view instanceof ComponentView || view instanceof CustomView ? "Component"
+                : view instanceof ContainerView ? "Container" : "Context";
+        boolean plantUml = format == Format.PLANTUML;
+        String indent = plantUml ? "" : "    ";
+
+        if (plantUml) {
+            out.write("@startuml\n");
+            out.write("!include <C4/C4_" + level + ">\n\n");
+        } else {
+            out.write("C4" + level + "\n");
+        }
+        out.write(indent + "title " + c4Text(titleOf(view)) + "\n\n");
+
+        Element scope = scopeOf(view);
+        List<Element> elements = elementsOf(view);
+        for (Element element : elements) {
+            if (scope == null || element.getParent() != scope) {
+                writeC4Element(element, indent, out);
+            }
+        }
+        if (scope != null) {
+            String boundary = scope instanceof Container ? "Container_Boundary" : "System_Boundary";
+            out.write(indent + boundary + "(b" + alias(scope.getId()) + ", \"" + c4Text(scope.getName()) + "\") {\n");
+            for (Element element : elements) {
+                if (element.getParent() == scope) {
+                    writeC4Element(element, indent + "    ", out);
+                }
+            }
+            out.write(indent + "}\n");
+        }
+
+        out.write("\n");
+        for (Relationship relationship : relationshipsOf(view)) {
+            out.write(indent + "Rel(" + alias(relationship.getSource().getId()) + ", " +
+                    alias(relationship.getDestination().getId()) + ", \"" + c4Text(relationship.getDescription()) + "\"");
+            if (relationship.getTechnology() != null) {
+                out.write(", \"" + c4Text(relationship.getTechnology()) + "\"");
+            }
+            out.write(")\n");
+        }
+
+        if (plantUml) {
+            out.write("@enduml\n");
+        }
+    }
+
+    private static void writeC4Element(Element element, String indent, Writer out) throws IOException {
+        String macro;
+        String technology = null;
+        if (element instanceof Person) {
+            macro = "Person";
+        } else if (element instanceof SoftwareSystem) {
+            macro = "System";
+        } else if (element instanceof Container container) {
+            macro = "Container";
+            technology = container.getTechnology();
+        } else if (element instanceof Component component) {
+            macro = "Component";
+            technology = component.getTechnology();
+        } else if (element instanceof CustomElement customElement) {
+            // Custom elements, such as the group overview of split component views, have no C4 macro of their own
+            macro = "Component";
+            technology = customElement.getMetadata();
+        } else {
+            return;
+        }
+
+        out.write(indent + macro + "(" + alias(element.getId()) + ", \"" + c4Text(element.getName()) + "\"");
+        if (!macro.equals("Person") && !macro.equals("System")) {
+            out.write(", \"" + c4Text(technology) + "\"");
+        }
+        out.write(", \"" + c4Text(element.getDescription()) + "\")\n");
+    }
+
+    /**
+     * Renders a Graphviz digraph; the scope of container and component views becomes a cluster.
+     */
+    private static void renderDot(View view, Writer out) throws IOException {
+        out.write("digraph " + dotText(view.getKey()) + " {\n");
+        out.write("    graph [label=" + dotText(titleOf(view)) + ", labelloc=\"t\", fontname=\"Helvetica\", rankdir=\"TB\"];\n");
+        out.write("    node [shape=\"box\", style=\"rounded,filled\", fontname=\"Helvetica\", fontsize=\"11\"];\n");
+        out.write("    edge [fontname=\"Helvetica\", fontsize=\"9\", color=\"#707070\"];\n\n");
+
+        Element scope = scopeOf(view);
+        List<Element> elements = elementsOf(view);
+        for (Element element : elements) {
+            if (scope == null || element.getParent() != scope) {
+                writeDotNode(element, "    ", out);
+            }
+        }
+        if (scope != null) {
+            out.write("    subgraph " + dotText("cluster_" + alias(scope.getId())) + " {\n");
+            out.write("        label=" + dotText(scope.getName() + "\n" + typeLabel(scope)) + ";\n");
+            out.write("        style=\"dashed\"; color=\"#444444\"; fontname=\"Helvetica\";\n");
+            for (Element element : elements) {
+                if (element.getParent() == scope) {
+                    writeDotNode(element, "        ", out);
+                }
+            }
+            out.write("    }\n");
+        }
+
+        out.write("\n");
+        for (Relationship relationship : relationshipsOf(view)) {
+            String label = relationship.getDescription() != null ? relationship.getDescription() : "";
+            if (relationship.getTechnology() != null) {
+                label += "\n[" + relationship.getTechnology() + "]";
+            }
+            out.write("    " + alias(relationship.getSource().getId()) + " -> " +
+                    alias(relationship.getDestination().getId()) + " [label=" + dotText(label) + "];\n");
+        }
+        out.write("}\n");
+    }
+
+    private static void writeDotNode(Element element, String indent, Writer out) throws IOException {
+        String fill = element instanceof Person ? "#08427b"
+                : element instanceof SoftwareSystem ? "#1168bd"
+                : element instanceof Container ? "#438dd5" : "#85bbf0";
+        String font = element instanceof Component ? "#000000" : "#ffffff";
+        String label = element.getName() + "\n" + typeLabel(element) +
+                (element.getDescription() != null && !element.getDescription().isBlank() ? "\n\n" + element.getDescription() : "");
+        out.write(indent + alias(element.getId()) + " [label=" + dotText(label) + ", fillcolor=\"" + fill +
+                "\", fontcolor=\"" + font + "\"" + (element instanceof Person ? ", shape=\"ellipse\"" : "") + "];\n");
+    }
+
+    private static String typeLabel(Element element) {
+        if (element instanceof Person) {
+            return "[Person]";
+        } else if (element instanceof SoftwareSystem) {
+            return "[Software System]";
+        } else if (element instanceof Container container) {
+            return container.getTechnology() != null ? "[Container: " + container.getTechnology() + "]" : "[Container]";
+        } else if (element instanceof Component component) {
+            return component.getTechnology() != null ? "[Component: " + component.getTechnology() + "]" : "[Component]";
+        } else if (element instanceof CustomElement customElement) {
+            return customElement.getMetadata() != null ? "[" + customElement.getMetadata() + "]" : "[Element]";
+        }
+        return "[Element]";
+    }
+
+    /**
+     * @return The element whose children a container or component view shows, null for system context views
+     */
+    private static Element scopeOf(View view) {
+        if (view instanceof ComponentView componentView) {
+            return componentView.getContainer();
+        }
+        if (view instanceof ContainerView) {
+            return view.getSoftwareSystem();
+        }
+        return null;
+    }
+
+    private static String titleOf(View view) {
+        if (view.getTitle() != null && !view.getTitle().isBlank()) {
+            return view.getTitle();
+        }
+        return view.getDescription() != null && !view.getDescription().isBlank() ? view.getDescription() : view.getKey();
+    }
+
+    /**
+     * Elements of a view in id order, so repeated exports of the same model are identical.
+     */
+    private static List<Element> elementsOf(View view) {
+        return view.getElements().stream()
+                .map(ElementView::getElement)
+                .sorted(Comparator.comparing(Element::getId, DiagramExporter::compareIds))
+                .toList();
+    }
+
+    private static List<Relationship> relationshipsOf(View view) {
+        return view.getRelationships().stream()
+                .map(RelationshipView::getRelationship)
+                .sorted(Comparator.comparing(Relationship::getId, DiagramExporter::compareIds))
+                .toList();
+    }
+
+    /**
+     * Orders the numeric ids Structurizr assigns numerically ("9" before "10").
+     */
+    private static int compareIds(String a, String b) {
+        return a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+    }
+
+    /**
+     * Turns an id or key into an identifier valid in all three formats.
+     */
+    private static String alias(String id) {
+        return "e" + id.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    /**
+     * Quoted C4 macro arguments cannot contain double quotes or line breaks.
+     */
+    private static String c4Text(String text) {
+        return text == null ? "" : text.replace('"', '\'').replaceAll("\\s*[\\r\\n]+\\s*", " ");
+    }
+
+    private static String dotText(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "").replace("\n", "\\n") + "\"";
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.service;
+
+import org.example.config.StrategyConfiguration;
+import org.example.model.C4ModelConfigDetail;
+import org.example.config.StrategyPlan;
+import org.example.utils.AtomicFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cheap fingerprint of everything a component scan depends on.
+ *
+ * <p>The fingerprint combines a format version and the generator version with the contents of
+ * the C4 configuration, its component include files, the strategy configuration and every class
+ * file below the configured base paths (sorted relative path, size and content hash).
+ * Class files are hashed in parallel; larger files are memory-mapped instead of copied into heap
+ * buffers. When the fingerprint equals the one stored next to the latest snapshot, the inputs of
+ * that snapshot are unchanged and the run can stop before building a workspace or scanning.</p>
+ *
+ * <p>Writing a new snapshot removes the stored fingerprint, so a fingerprint always describes the
+ * inputs of the snapshot it is stored with.</p>
+ */
+public class InputFingerprint {
+
+    public static final String FINGERPRINT_FILE = "input-fingerprint.sha256";
+
+    /**
+     * Part of every fingerprint. Bump it whenever the scan, snapshot or export output changes for
+     * the same inputs, so fingerprints stored by an older generator no longer match.
+     */
+    private static final String FORMAT_VERSION = "input-fingerprint-2";
+
+    /** Files below this size are read directly; mapping them costs more than it saves */
+    private static final long MAP_THRESHOLD = 64 * 1024;
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    /**
+     * Computes the fingerprint of both configuration files and all class files below the base
+     * paths configured in the strategy configuration.
+     *
+     * @param c4Config       The C4 model configuration file
+     * @param strategyConfig The strategy configuration file
+     * @return Hex-encoded SHA-256 fingerprint
+     * @throws IOException if a file cannot be read
+     */
+    public static String compute(File c4Config, File strategyConfig) throws IOException {
+        Map<Path, List<Path>> classFiles = new LinkedHashMap<>();
+        for (Path root : classRoots(StrategyConfiguration.loadFromFile(strategyConfig))) {
+            classFiles.put(root, listClassFiles(root));
+        }
+        return compute(c4Config, strategyConfig, classFiles);
+    }
+
+    /**
+     * Computes the fingerprint from class files that were already enumerated, for example by
+     * {@link org.example.c4.StartupLoader} while the configuration was still being loaded.
+     *
+     * @param c4Config       The C4 model configuration file
+     * @param strategyConfig The strategy configuration file
+     * @param classFiles     Sorted class files per root from {@link #listClassFiles(Path)}, keyed by
+     *                       the roots of {@link #classRoots(StrategyConfiguration)}
+     * @return Hex-encoded SHA-256 fingerprint
+     * @throws IOException if a file cannot be read
+     */
+    public static String compute(File c4Config, File strategyConfig, Map<Path, List<Path>> classFiles) throws IOException {
+        List<String> entries = new ArrayList<>();
+        entries.add("format|" + FORMAT_VERSION + "|" + generatorVersion());
+        try {
+            entries.add("c4Config|" + hashFile(c4Config.toPath()));
+            entries.add("strategyConfig|" + hashFile(strategyConfig.toPath()));
+            // Component includes are loaded lazily, but still decide the generated model
+            for (Map.Entry<String, File> include : C4ModelConfigDetail.includeFilesOf(c4Config).entrySet()) {
+                File includeFile = include.getValue();
+                entries.add("include|" + include.getKey() + "|" +
+                        (includeFile.isFile() ? hashFile(includeFile.toPath()) : "missing"));
+            }
+            for (Map.Entry<Path, List<Path>> root : new TreeMap<>(classFiles).entrySet()) {
+                entries.addAll(classFileEntries(root.getKey(), root.getValue()));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        MessageDigest digest = sha256();
+        for (String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * @return The version of the packaged generator, or "dev" when running from class directories
+     */
+    private static String generatorVersion() {
+        String version = InputFingerprint.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+
+    /**
+     * Returns the distinct class directories configured as base paths, in path order.
+     *
+     * @param strategyConfig The strategy configuration
+     * @return Normalized base paths
+     */
+    public static Set<Path> classRoots(StrategyConfiguration strategyConfig) {
+        StrategyPlan plan = strategyConfig.getPlan() != null ? strategyConfig.getPlan() : StrategyPlan.build(strategyConfig);
+        Set<Path> roots = new TreeSet<>();
+        for (String basePath : plan.getContainersByBasePath().keySet()) {
+            // Relative paths stay relative so fingerprints are stable across checkout locations
+            roots.add(Path.of(basePath));
+        }
+        return roots;
+    }
+
+    /**
+     * Lists the class files below a base path in path order.
+     *
+     * @param root The class directory
+     * @return Sorted class files, or null if the directory does not exist
+     * @throws IOException if the directory cannot be walked
+     */
+    public static List<Path> listClassFiles(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                    .filter(file -> file.toString().endsWith(".class"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Lists "relative path|size|sha256" for every class file below a base path, in path order.
+     */
+    private static List<String> classFileEntries(Path root, List<Path> classFiles) {
+        List<String> entries = new ArrayList<>();
+        if (classFiles == null) {
+            entries.add(root + "|missing");
+            return entries;
+        }
+
+        entries.add(root + "|" + classFiles.size());
+        // The list is ordered, so the parallel hashes are collected in path order
+        entries.addAll(classFiles.parallelStream()
+                .map(file -> root.relativize(file) + "|" + hashFile(file))
+                .collect(Collectors.toList()));
+        return entries;
+    }
+
+    /**
+     * Checks whether the fingerprint stored next to the latest snapshot equals {@code fingerprint}.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @param fingerprint   Fingerprint of the current inputs
+     * @return true if the latest snapshot was produced from identical inputs
+     */
+    public static boolean matchesStored(String componentsDir, String fingerprint) {
+        Path file = Path.of(componentsDir, FINGERPRINT_FILE);
+        Path latest = Path.of(componentsDir, ComponentSerializationService.LATEST_SNAPSHOT_FILE);
+        if (!Files.exists(file) || !Files.exists(latest)) {
+            return false;
+        }
+        try {
+            return fingerprint.equals(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            System.err.println("Warning: could not read input fingerprint " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stores the fingerprint of the inputs the latest snapshot was produced from.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @param fingerprint   Fingerprint of the inputs of the latest snapshot
+     * @throws IOException if the file cannot be written
+     */
+    public static void store(String componentsDir, String fingerprint) throws IOException {
+        byte[] content = (fingerprint + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        AtomicFileWriter.write(Path.of(componentsDir, FINGERPRINT_FILE).toAbsolutePath(),
+                out -> out.write(content));
+    }
+
+    /**
+     * Removes the stored fingerprint, because the latest snapshot is about to be replaced.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @throws IOException if the file exists but cannot be deleted
+     */
+    public static void invalidate(String componentsDir) throws IOException {
+        Files.deleteIfExists(Path.of(componentsDir, FINGERPRINT_FILE));
+    }
+
+    /**
+     * Returns "size|sha256" of a file, memory-mapping files above {@link #MAP_THRESHOLD}.
+     */
+    private static String hashFile(Path file) {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAP_THRESHOLD) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the file is consumed
+                }
+                buffer.flip();
+                digest.update(buffer);
+            } else {
+                for (long position = 0; position < size; position += MAP_CHUNK) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position)));
+                }
+            }
+            return size + "|" + hex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
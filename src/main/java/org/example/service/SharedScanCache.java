@@ -0,0 +1,101 @@
+package org.example.service;
+
+import org.example.config.StrategyConfig;
+import org.example.config.StrategyConfiguration;
+import org.example.config.StrategyPlan;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Scan results shared between the model pipelines of several repositories in one JVM.
+ *
+ * <p>Results are keyed by the canonical class directory together with everything that influences
+ * what a scan of it discovers: the enabled strategies, the default technology and the inner/test
+ * class filters. Repositories that point at the same compiled artifact, such as a common library
+ * build, therefore scan it only once per batch. Concurrent requests for the same key wait for the
+ * first scan instead of starting their own.</p>
+ */
+public class SharedScanCache {
+
+    private final ConcurrentHashMap<String, CompletableFuture<ComponentSerializationService.ContainerSnapshot>> entries =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached scan result for a key, running {@code scan} if this is the first request for it.
+     *
+     * @param key  Cache key from {@link #keyFor(StrategyConfiguration, String)}
+     * @param scan Performs the scan and returns its serialized result
+     * @return The scan result, computed by this or by a concurrent caller
+     */
+    public ComponentSerializationService.ContainerSnapshot get(
+            String key, Supplier<ComponentSerializationService.ContainerSnapshot> scan) {
+        CompletableFuture<ComponentSerializationService.ContainerSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<ComponentSerializationService.ContainerSnapshot> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            created.complete(scan.get());
+        } catch (RuntimeException e) {
+            // Do not cache failures; the next caller retries
+            entries.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        return created.join();
+    }
+
+    /**
+     * @return Number of distinct scans held by the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Builds the cache key for scanning one container, or null if the container has no base path.
+     *
+     * @param strategyConfig The strategy configuration of the repository
+     * @param containerKey   The container's configuration key
+     * @return Key identifying the scan independent of the repository it belongs to
+     */
+    public static String keyFor(StrategyConfiguration strategyConfig, String containerKey) {
+        String basePath = strategyConfig.getGlobalConfig().getBasePath(containerKey);
+        if (basePath == null) {
+            return null;
+        }
+
+        String directory;
+        try {
+            directory = new File(basePath).getCanonicalPath();
+        } catch (IOException e) {
+            directory = new File(basePath).getAbsolutePath();
+        }
+
+        StrategyConfiguration.GlobalConfig globalConfig = strategyConfig.getGlobalConfig();
+        StringBuilder key = new StringBuilder(directory)
+                .append('|').append(globalConfig.getDefaultTechnology(containerKey))
+                .append('|').append(globalConfig.isExcludeInnerClasses())
+                .append('|').append(globalConfig.isExcludeTestClasses());
+
+        // Strategies in plan order, since the order decides which strategy claims a class
+        StrategyPlan plan = strategyConfig.getPlan() != null ? strategyConfig.getPlan() : StrategyPlan.build(strategyConfig);
+        StrategyPlan.ContainerPlan containerPlan = plan.forContainer(containerKey);
+        List<StrategyConfig> strategies = containerPlan != null ? containerPlan.strategies : List.of();
+        for (StrategyConfig strategy : strategies) {
+            Map<String, Object> config = strategy.getConfig() != null ? new TreeMap<>(strategy.getConfig()) : Map.of();
+            key.append('|').append(strategy.getName())
+                    .append('|').append(strategy.getType())
+                    .append('|').append(config);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,299 @@
+package org.example.service;
+
+import org.example.service.ComponentSerializationService.ComponentSnapshot;
+import org.example.service.ComponentSerializationService.ContainerSnapshot;
+import org.example.service.ComponentSerializationService.SerializedComponent;
+import org.example.service.ComponentSerializationService.SerializedRelationship;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Structural diff engine for component snapshots.
+ *
+ * <p>Compares two snapshots container by container and component by component, emitting
+ * one {@link ComponentChange} per added, removed or modified component with field-level
+ * detail (description, technology, type, tags, relationships and metadata).</p>
+ *
+ * <p>The engine never mutates its inputs. The components of all containers are flattened into
+ * one list of (container, component) pairs that is compared in parallel, so the work spreads
+ * over all cores even when one container dominates the snapshot. Relationships are
+ * compared as hashed signature sets instead of being sorted in place.</p>
+ */
+public class SnapshotDiffEngine {
+
+    /** Snapshots with at least this many components are diffed with a parallel component stream */
+    private static final int PARALLEL_COMPONENT_THRESHOLD = 1_000;
+
+    private static final String KEY_SEPARATOR = "::";
+
+    public enum ChangeType {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+
+    /**
+     * A single scalar field that differs between the old and new version of a component.
+     */
+    public static class FieldChange {
+        public final String field;
+        public final String oldValue;
+        public final String newValue;
+
+        public FieldChange(String field, String oldValue, String newValue) {
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        @Override
+        public String toString() {
+            return field + ": " + oldValue + " -> " + newValue;
+        }
+    }
+
+    /**
+     * Change record for one component, keyed as {@code container::component}.
+     */
+    public static class ComponentChange {
+        public final String componentKey;
+        public final String containerKey;
+        public final String componentName;
+        public final ChangeType changeType;
+        public final List<FieldChange> fieldChanges;
+        public final Set<String> tagsAdded;
+        public final Set<String> tagsRemoved;
+        public final Set<String> relationshipsAdded;
+        public final Set<String> relationshipsRemoved;
+
+        ComponentChange(String containerKey, String componentName, ChangeType changeType,
+                        List<FieldChange> fieldChanges,
+                        Set<String> tagsAdded, Set<String> tagsRemoved,
+                        Set<String> relationshipsAdded, Set<String> relationshipsRemoved) {
+            this.componentKey = containerKey + KEY_SEPARATOR + componentName;
+            this.containerKey = containerKey;
+            this.componentName = componentName;
+            this.changeType = changeType;
+            this.fieldChanges = fieldChanges;
+            this.tagsAdded = tagsAdded;
+            this.tagsRemoved = tagsRemoved;
+            this.relationshipsAdded = relationshipsAdded;
+            this.relationshipsRemoved = relationshipsRemoved;
+        }
+
+        static ComponentChange of(String containerKey, String componentName, ChangeType changeType) {
+            return new ComponentChange(containerKey, componentName, changeType, List.of(),
+                    Set.of(), Set.of(), Set.of(), Set.of());
+        }
+    }
+
+    /**
+     * Result of a structural diff, ordered by component key.
+     */
+    public static class SnapshotDiff {
+        public final List<ComponentChange> changes;
+
+        public SnapshotDiff(List<ComponentChange> changes) {
+            this.changes = changes;
+        }
+
+        public boolean hasChanges() {
+            return !changes.isEmpty();
+        }
+
+        /**
+         * Converts this diff into the key-based result used by the change detection workflow.
+         */
+        public ComponentSerializationService.ComponentComparisonResult toComparisonResult() {
+            return new ComponentSerializationService.ComponentComparisonResult(
+                    keysOf(ChangeType.ADDED), keysOf(ChangeType.REMOVED), keysOf(ChangeType.MODIFIED), changes);
+        }
+
+        private Set<String> keysOf(ChangeType type) {
+            return changes.stream()
+                    .filter(change -> change.changeType == type)
+                    .map(change -> change.componentKey)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+
+    /**
+     * Diffs two snapshots.
+     *
+     * @param oldSnapshot Previous snapshot (can be null, in which case every component is new)
+     * @param newSnapshot Current snapshot
+     * @return SnapshotDiff with one change record per differing component
+     */
+    public static SnapshotDiff diff(ComponentSnapshot oldSnapshot, ComponentSnapshot newSnapshot) {
+        return diff(oldSnapshot, newSnapshot, true);
+    }
+
+    /**
+     * Diffs two snapshots, optionally on a single thread. Both paths produce the same result;
+     * the sequential one serves as reference.
+     *
+     * @param oldSnapshot Previous snapshot (can be null, in which case every component is new)
+     * @param newSnapshot Current snapshot
+     * @param parallel    Compare components in parallel once there are at least
+     *                    {@value #PARALLEL_COMPONENT_THRESHOLD} of them
+     * @return SnapshotDiff with one change record per differing component
+     */
+    public static SnapshotDiff diff(ComponentSnapshot oldSnapshot, ComponentSnapshot newSnapshot, boolean parallel) {
+        Map<String, ContainerSnapshot> oldContainers = oldSnapshot != null ? oldSnapshot.containers : Map.of();
+        Map<String, ContainerSnapshot> newContainers = newSnapshot != null ? newSnapshot.containers : Map.of();
+
+        Set<String> containerKeys = new HashSet<>(oldContainers.keySet());
+        containerKeys.addAll(newContainers.keySet());
+
+        // One flat work list, so a single large container spreads over all cores as well
+        List<String[]> pairs = new ArrayList<>();
+        for (String containerKey : containerKeys) {
+            for (String name : componentNames(oldContainers.get(containerKey), newContainers.get(containerKey))) {
+                pairs.add(new String[]{containerKey, name});
+            }
+        }
+
+        Stream<String[]> pairStream = parallel && pairs.size() >= PARALLEL_COMPONENT_THRESHOLD
+                ? pairs.parallelStream()
+                : pairs.stream();
+
+        List<ComponentChange> changes = pairStream
+                .map(pair -> diffComponent(pair[0], pair[1],
+                        componentOf(oldContainers.get(pair[0]), pair[1]),
+                        componentOf(newContainers.get(pair[0]), pair[1])))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(change -> change.componentKey))
+                .collect(Collectors.toList());
+
+        return new SnapshotDiff(changes);
+    }
+
+    /**
+     * Names of the components on either side of a container; either side may be null when the
+     * container was added or removed.
+     */
+    private static Set<String> componentNames(ContainerSnapshot oldContainer, ContainerSnapshot newContainer) {
+        Set<String> names = new HashSet<>();
+        if (oldContainer != null) {
+            names.addAll(oldContainer.components.keySet());
+        }
+        if (newContainer != null) {
+            names.addAll(newContainer.components.keySet());
+        }
+        return names;
+    }
+
+    private static SerializedComponent componentOf(ContainerSnapshot container, String name) {
+        return container != null ? container.components.get(name) : null;
+    }
+
+    /**
+     * Produces the change record for a single component, or null if both versions are equal.
+     */
+    private static ComponentChange diffComponent(String containerKey, String name,
+                                                 SerializedComponent oldComp, SerializedComponent newComp) {
+        if (oldComp == null) {
+            return ComponentChange.of(containerKey, name, ChangeType.ADDED);
+        }
+        if (newComp == null) {
+            return ComponentChange.of(containerKey, name, ChangeType.REMOVED);
+        }
+
+        List<FieldChange> fieldChanges = new ArrayList<>();
+        compareField(fieldChanges, "name", oldComp.name, newComp.name);
+        compareField(fieldChanges, "description", oldComp.description, newComp.description);
+        compareField(fieldChanges, "technology", oldComp.technology, newComp.technology);
+        compareField(fieldChanges, "type", oldComp.type, newComp.type);
+        compareMetadata(fieldChanges, oldComp.metadata, newComp.metadata);
+
+        Set<String> oldTags = nullToEmpty(oldComp.tags);
+        Set<String> newTags = nullToEmpty(newComp.tags);
+        Set<String> tagsAdded = difference(newTags, oldTags);
+        Set<String> tagsRemoved = difference(oldTags, newTags);
+
+        Map<String, SerializedRelationship> oldRels = relationshipSignatures(oldComp.relationships);
+        Map<String, SerializedRelationship> newRels = relationshipSignatures(newComp.relationships);
+        Set<String> relationshipsAdded = describe(difference(newRels.keySet(), oldRels.keySet()), newRels);
+        Set<String> relationshipsRemoved = describe(difference(oldRels.keySet(), newRels.keySet()), oldRels);
+
+        if (fieldChanges.isEmpty() && tagsAdded.isEmpty() && tagsRemoved.isEmpty()
+                && relationshipsAdded.isEmpty() && relationshipsRemoved.isEmpty()) {
+            return null;
+        }
+
+        return new ComponentChange(containerKey, name, ChangeType.MODIFIED, fieldChanges,
+                tagsAdded, tagsRemoved, relationshipsAdded, relationshipsRemoved);
+    }
+
+    private static void compareField(List<FieldChange> changes, String field, String oldValue, String newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(new FieldChange(field, oldValue, newValue));
+        }
+    }
+
+    private static void compareMetadata(List<FieldChange> changes,
+                                        Map<String, String> oldMetadata, Map<String, String> newMetadata) {
+        Map<String, String> oldMap = oldMetadata != null ? oldMetadata : Map.of();
+        Map<String, String> newMap = newMetadata != null ? newMetadata : Map.of();
+
+        Set<String> keys = new TreeSet<>(oldMap.keySet());
+        keys.addAll(newMap.keySet());
+        for (String key : keys) {
+            compareField(changes, "metadata." + key, oldMap.get(key), newMap.get(key));
+        }
+    }
+
+    /**
+     * Indexes relationships by a signature covering target, description, type and properties.
+     * Duplicate relationships collapse into one entry, matching set semantics.
+     */
+    private static Map<String, SerializedRelationship> relationshipSignatures(List<SerializedRelationship> relationships) {
+        if (relationships == null || relationships.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, SerializedRelationship> signatures = new HashMap<>(relationships.size() * 2);
+        for (SerializedRelationship relationship : relationships) {
+            Map<String, String> properties = relationship.properties != null
+                    ? new TreeMap<>(relationship.properties)
+                    : Map.of();
+            String signature = relationship.target + '\u0000' + relationship.description + '\u0000'
+                    + relationship.type + '\u0000' + properties;
+            signatures.put(signature, relationship);
+        }
+        return signatures;
+    }
+
+    private static Set<String> describe(Set<String> signatures, Map<String, SerializedRelationship> bySignature) {
+        if (signatures.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> descriptions = new TreeSet<>();
+        for (String signature : signatures) {
+            SerializedRelationship relationship = bySignature.get(signature);
+            descriptions.add(relationship.target + " (" + relationship.description + ")");
+        }
+        return descriptions;
+    }
+
+    private static Set<String> difference(Set<String> left, Set<String> right) {
+        if (left.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> result = new TreeSet<>();
+        for (String value : left) {
+            if (!right.contains(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> nullToEmpty(Set<String> values) {
+        return values != null ? values : Set.of();
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Query API for diffing any two snapshots in the history of a snapshot directory.
+ *
+ * <p>Snapshots are referenced by:</p>
+ * <ul>
+ *   <li><strong>latest</strong> - the most recent snapshot</li>
+ *   <li><strong>label</strong> - a label attached with {@link #label(String, String)}, e.g. "release-4.2"</li>
+ *   <li><strong>hash prefix</strong> - at least 7 characters of the snapshot content hash</li>
+ *   <li><strong>timestamp</strong> - ISO ({@code 2025-07-21T15:46}) or file style ({@code 20250721-154625});
+ *       resolves to the last snapshot taken at or before that time (end of the day or minute for partial timestamps)</li>
+ * </ul>
+ *
+ * <p>Resolution and container selection use only the {@link SnapshotManifest}. Containers whose
+ * hashes match in the manifest are skipped, and the remaining ones are streamed from the two
+ * snapshot files with {@link SnapshotStreamReader} before being handed to {@link SnapshotDiffEngine}.</p>
+ */
+public class SnapshotHistoryQuery {
+
+    private static final int MIN_HASH_PREFIX = 7;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String componentsDir;
+    private final SnapshotManifest manifest;
+
+    private SnapshotHistoryQuery(String componentsDir, SnapshotManifest manifest) {
+        this.componentsDir = componentsDir;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Opens the history of a snapshot directory.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @return Query bound to the directory's manifest
+     * @throws IOException if the manifest cannot be read or rebuilt
+     */
+    public static SnapshotHistoryQuery open(String componentsDir) throws IOException {
+        return new SnapshotHistoryQuery(componentsDir, SnapshotManifest.load(componentsDir));
+    }
+
+    /**
+     * @return Manifest entries in chronological order
+     */
+    public List<SnapshotManifest.Entry> entries() {
+        return Collections.unmodifiableList(manifest.entries);
+    }
+
+    /**
+     * Resolves a snapshot reference against the manifest.
+     *
+     * @param ref "latest", a label, a content hash prefix or a timestamp
+     * @return The matching manifest entry
+     * @throws IllegalArgumentException if the reference matches no snapshot or is ambiguous
+     */
+    public SnapshotManifest.Entry resolve(String ref) {
+        List<SnapshotManifest.Entry> entries = manifest.entries;
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("No snapshots recorded in " + componentsDir);
+        }
+
+        if ("latest".equalsIgnoreCase(ref)) {
+            return entries.get(entries.size() - 1);
+        }
+
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (ref.equals(entries.get(i).label)) {
+                return entries.get(i);
+            }
+        }
+
+        if (ref.length() >= MIN_HASH_PREFIX && ref.matches("[0-9a-fA-F]+")) {
+            String prefix = ref.toLowerCase();
+            Set<String> hashes = new HashSet<>();
+            SnapshotManifest.Entry match = null;
+            for (SnapshotManifest.Entry entry : entries) {
+                if (entry.contentHash != null && entry.contentHash.startsWith(prefix)) {
+                    hashes.add(entry.contentHash);
+                    match = entry; // identical content in several files: the newest wins
+                }
+            }
+            if (hashes.size() > 1) {
+                throw new IllegalArgumentException("Ambiguous hash prefix '" + ref + "' matches " + hashes.size() + " snapshots");
+            }
+            if (match != null) {
+                return match;
+            }
+        }
+
+        LocalDateTime at = parseTimestamp(ref);
+        if (at != null) {
+            SnapshotManifest.Entry match = null;
+            for (SnapshotManifest.Entry entry : entries) {
+                LocalDateTime taken = parseTimestamp(entry.timestamp);
+                if (taken != null && !taken.isAfter(at)) {
+                    match = entry;
+                }
+            }
+            if (match != null) {
+                return match;
+            }
+        }
+
+        throw new IllegalArgumentException("No snapshot matches reference '" + ref + "'");
+    }
+
+    /**
+     * Diffs two snapshots from the history.
+     *
+     * @param fromRef Reference of the older snapshot
+     * @param toRef   Reference of the newer snapshot
+     * @return Field-level diff covering only the containers whose hashes differ
+     * @throws IOException if one of the snapshot files cannot be read
+     */
+    public SnapshotDiffEngine.SnapshotDiff diff(String fromRef, String toRef) throws IOException {
+        SnapshotManifest.Entry from = resolve(fromRef);
+        SnapshotManifest.Entry to = resolve(toRef);
+
+        System.out.println("Comparing " + from.describe());
+        System.out.println("     with " + to.describe());
+
+        if (Objects.equals(from.contentHash, to.contentHash)) {
+            System.out.println(" Snapshots have identical content hashes - nothing to compare");
+            return new SnapshotDiffEngine.SnapshotDiff(List.of());
+        }
+
+        Set<String> changedContainers = new TreeSet<>();
+        Set<String> containerKeys = new HashSet<>(from.containerHashes.keySet());
+        containerKeys.addAll(to.containerHashes.keySet());
+        for (String key : containerKeys) {
+            String fromHash = from.containerHashes.get(key);
+            String toHash = to.containerHashes.get(key);
+            if (fromHash == null || !fromHash.equals(toHash)) {
+                changedContainers.add(key);
+            }
+        }
+
+        System.out.println(" " + changedContainers.size() + " of " + containerKeys.size() +
+                " containers differ: " + changedContainers);
+
+        ComponentSerializationService.ComponentSnapshot fromSnapshot =
+                SnapshotStreamReader.loadContainers(new File(componentsDir, from.file), changedContainers);
+        ComponentSerializationService.ComponentSnapshot toSnapshot =
+                SnapshotStreamReader.loadContainers(new File(componentsDir, to.file), changedContainers);
+
+        return SnapshotDiffEngine.diff(fromSnapshot, toSnapshot);
+    }
+
+    /**
+     * Attaches a label to a snapshot so it can later be referenced by name, e.g. "release-4.2".
+     * A label already used by another snapshot is moved to this one.
+     *
+     * @param ref   Reference of the snapshot to label
+     * @param label The label to attach
+     * @return The labelled entry
+     * @throws IOException if the manifest cannot be written
+     */
+    public SnapshotManifest.Entry label(String ref, String label) throws IOException {
+        SnapshotManifest.Entry target = resolve(ref);
+        for (SnapshotManifest.Entry entry : manifest.entries) {
+            if (label.equals(entry.label)) {
+                entry.label = null;
+            }
+        }
+        target.label = label;
+        manifest.save(componentsDir);
+        return target;
+    }
+
+    /**
+     * Parses file style timestamps and ISO timestamps of day, minute or second precision.
+     * A partial timestamp means the end of that day or minute, so the whole period is included.
+     */
+    private static LocalDateTime parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value, FILE_TIMESTAMP);
+        } catch (DateTimeParseException e) {
+            // fall through to the ISO variants
+        }
+        for (String candidate : new String[]{value + ":59.999999999", value + "T23:59:59.999999999", value}) {
+            try {
+                return LocalDateTime.parse(candidate);
+            } catch (DateTimeParseException e) {
+                // try the next precision
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.utils.AtomicFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Index of the timestamped snapshots in a snapshot directory.
+ *
+ * <p>Each entry records a snapshot file together with its overall content hash, the content
+ * hash of every container and an optional label. History queries resolve references and
+ * decide which containers differ from this index alone, so only the two snapshots being
+ * compared are ever opened, and only for the containers that actually changed.</p>
+ *
+ * @see SnapshotHistoryQuery
+ */
+public class SnapshotManifest {
+
+    public static final String MANIFEST_FILE = "snapshot-manifest.json";
+
+    private static final String SNAPSHOT_FILE_PREFIX = "components-snapshot-";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /** Entries in chronological order, oldest first */
+    public List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Manifest entry describing one timestamped snapshot file.
+     */
+    public static class Entry {
+        public String file;
+        public String timestamp;
+        public String contentHash;
+        public String label;
+        public int componentCount;
+        public Map<String, String> containerHashes = new LinkedHashMap<>();
+
+        /**
+         * Returns a short description for listings and logs.
+         */
+        public String describe() {
+            return timestamp + "  " + shortHash(contentHash) + "  " + componentCount + " components  " + file
+                    + (label != null ? "  [" + label + "]" : "");
+        }
+    }
+
+    /**
+     * Loads the manifest of a snapshot directory, rebuilding it from the snapshot files if it is missing.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @return The manifest, empty if the directory holds no snapshots
+     * @throws IOException if the manifest or a snapshot file cannot be read
+     */
+    public static SnapshotManifest load(String componentsDir) throws IOException {
+        File manifestFile = new File(componentsDir, MANIFEST_FILE);
+        if (manifestFile.exists()) {
+            return objectMapper.readValue(manifestFile, SnapshotManifest.class);
+        }
+        return rebuild(componentsDir);
+    }
+
+    /**
+     * Writes the manifest atomically into the snapshot directory.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @throws IOException if the manifest cannot be written
+     */
+    public void save(String componentsDir) throws IOException {
+        Path target = Path.of(componentsDir, MANIFEST_FILE).toAbsolutePath();
+        AtomicFileWriter.write(target, out -> objectMapper.writeValue(out, this));
+    }
+
+    /**
+     * Adds an entry for a freshly written snapshot and persists the manifest.
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @param snapshotFile  File name of the timestamped snapshot
+     * @param snapshot      The snapshot that was written
+     * @param contentHash   Canonical hash of the snapshot
+     * @throws IOException if the manifest cannot be read or written
+     */
+    public static void append(String componentsDir, String snapshotFile,
+                              ComponentSerializationService.ComponentSnapshot snapshot,
+                              String contentHash) throws IOException {
+        SnapshotManifest manifest = load(componentsDir);
+        // load() may have rebuilt the manifest from disk, which already covers this file
+        manifest.entries.removeIf(entry -> snapshotFile.equals(entry.file));
+        manifest.entries.add(entryFor(snapshotFile, snapshot, contentHash));
+        manifest.save(componentsDir);
+    }
+
+    /**
+     * Rebuilds the manifest by reading every timestamped snapshot in the directory.
+     *
+     * <p>This is the slow path, used once for histories written before the manifest existed.
+     * Each snapshot is fully loaded so that hashes can be computed for older files.</p>
+     *
+     * @param componentsDir Directory holding the snapshot history
+     * @return The rebuilt (not yet saved) manifest
+     * @throws IOException if a snapshot file cannot be read
+     */
+    public static SnapshotManifest rebuild(String componentsDir) throws IOException {
+        SnapshotManifest manifest = new SnapshotManifest();
+        File[] files = new File(componentsDir).listFiles((dir, name) ->
+                name.startsWith(SNAPSHOT_FILE_PREFIX) && name.endsWith(".json"));
+        if (files == null) {
+            return manifest;
+        }
+
+        // File names embed yyyyMMdd-HHmmss, so name order is chronological order
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        for (File file : files) {
+            ComponentSerializationService.ComponentSnapshot snapshot =
+                    objectMapper.readValue(file, ComponentSerializationService.ComponentSnapshot.class);
+            manifest.entries.add(entryFor(file.getName(), snapshot,
+                    ComponentSerializationService.snapshotContentHash(snapshot)));
+        }
+        return manifest;
+    }
+
+    private static Entry entryFor(String snapshotFile,
+                                  ComponentSerializationService.ComponentSnapshot snapshot,
+                                  String contentHash) {
+        Entry entry = new Entry();
+        entry.file = snapshotFile;
+        entry.timestamp = snapshot.timestamp;
+        entry.contentHash = contentHash;
+
+        for (Map.Entry<String, ComponentSerializationService.ContainerSnapshot> container : snapshot.containers.entrySet()) {
+            ComponentSerializationService.ContainerSnapshot value = container.getValue();
+            String hash = value.contentHash != null
+                    ? value.contentHash
+                    : ComponentSerializationService.containerContentHash(value);
+            entry.containerHashes.put(container.getKey(), hash);
+            entry.componentCount += value.components.size();
+        }
+        return entry;
+    }
+
+    static String shortHash(String hash) {
+        return hash == null ? "-" : hash.substring(0, Math.min(12, hash.length()));
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming reader for component snapshot files.
+ *
+ * <p>Walks the snapshot with Jackson's {@link JsonParser} instead of binding the whole
+ * document, so callers can materialize only the containers they need, or read just the
+ * container keys, component names and content hashes. Everything else is skipped
+ * token-wise without building objects.</p>
+ *
+ * @see ComponentSerializationService#loadSnapshot(String, Set)
+ */
+public class SnapshotStreamReader {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Lightweight view of a container inside a snapshot: identity, hash and component keys only.
+     */
+    public static class ContainerSummary {
+        public String containerName;
+        public String contentHash;
+        public int componentCount;
+        public final Set<String> componentNames = new LinkedHashSet<>();
+    }
+
+    /**
+     * Loads the snapshot header and the selected containers, skipping all others.
+     *
+     * @param file          The snapshot file to read
+     * @param containerKeys Container keys to materialize; all other containers are skipped
+     * @return ComponentSnapshot containing only the selected containers
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static ComponentSerializationService.ComponentSnapshot loadContainers(
+            File file, Set<String> containerKeys) throws IOException {
+        ComponentSerializationService.ComponentSnapshot snapshot =
+                new ComponentSerializationService.ComponentSnapshot();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "timestamp":
+                        snapshot.timestamp = parser.getValueAsString();
+                        break;
+                    case "generatedBy":
+                        snapshot.generatedBy = parser.getValueAsString();
+                        break;
+                    case "version":
+                        snapshot.version = parser.getValueAsString();
+                        break;
+                    case "containers":
+                        expect(value, JsonToken.START_OBJECT, file);
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String containerKey = parser.getCurrentName();
+                            parser.nextToken();
+                            if (containerKeys.contains(containerKey)) {
+                                snapshot.containers.put(containerKey, parser.readValueAs(
+                                        ComponentSerializationService.ContainerSnapshot.class));
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Reads container keys, content hashes and component names without materializing components.
+     *
+     * <p>Snapshots written before per-container hashes were introduced yield a null
+     * {@code contentHash}.</p>
+     *
+     * @param file The snapshot file to read
+     * @return Map of container key to its summary, in file order
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Map<String, ContainerSummary> loadContainerSummaries(File file) throws IOException {
+        Map<String, ContainerSummary> summaries = new LinkedHashMap<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if (!"containers".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                expect(value, JsonToken.START_OBJECT, file);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String containerKey = parser.getCurrentName();
+                    expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+                    summaries.put(containerKey, readContainerSummary(parser, file));
+                }
+            }
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Reads a single container object, keeping only its summary fields.
+     * The parser must be positioned on the container's START_OBJECT token.
+     */
+    private static ContainerSummary readContainerSummary(JsonParser parser, File file) throws IOException {
+        ContainerSummary summary = new ContainerSummary();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "containerName":
+                    summary.containerName = parser.getValueAsString();
+                    break;
+                case "contentHash":
+                    summary.contentHash = parser.getValueAsString();
+                    break;
+                case "componentCount":
+                    summary.componentCount = parser.getValueAsInt();
+                    break;
+                case "components":
+                    expect(value, JsonToken.START_OBJECT, file);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        summary.componentNames.add(parser.getCurrentName());
+                        parser.nextToken();
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return summary;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, File file) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Malformed snapshot " + file.getPath() + ": expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package org.example.service;
+
+import com.structurizr.Workspace;
+import com.structurizr.io.json.JsonWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.utils.AtomicFileWriter;
+import org.example.utils.ConfigJson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a workspace as Structurizr JSON.
+ *
+ * <p>The JSON is serialized once and streamed through a buffered writer into a temporary file,
+ * so readers never see a partial export. Unless per-view files are requested, the document is
+ * never held in memory as a whole. While the JSON is written its SHA-256 hash is computed and
+ * stored next to the export in {@code <export>}{@value #HASH_SUFFIX}, so downstream consumers can
+ * tell whether a model changed without reading it. If the hash equals the stored hash, the
+ * temporary file is discarded and the existing export is left untouched, so its modification
+ * time only changes when its content does; otherwise the temporary file replaces the export
+ * atomically.</p>
+ *
+ * <p>Output is configured with system properties:</p>
+ * <ul>
+ *   <li>{@value #PATH_PROPERTY}: export file used when no path is given explicitly</li>
+ *   <li>{@value #COMPACT_PROPERTY}: {@code true} writes the JSON without indentation</li>
+ *   <li>{@value #GZIP_PROPERTY}: {@code true} compresses the export and adds {@value #GZIP_SUFFIX} to its name</li>
+ *   <li>{@value #VIEWS_PROPERTY}: {@code true} also writes one workspace document per view, holding
+ *       only the elements and relationships that view shows, so consumers can load what they render</li>
+ * </ul>
+ *
+ * <p>The hash always describes the uncompressed JSON, so it does not change with the gzip setting.</p>
+ */
+public class WorkspaceExporter {
+
+    public static final String PATH_PROPERTY = "c4.export.path";
+    public static final String COMPACT_PROPERTY = "c4.export.compact";
+    public static final String GZIP_PROPERTY = "c4.export.gzip";
+
+    /** File the workspace is exported to when neither a path nor {@value #PATH_PROPERTY} is given */
+    public static final String DEFAULT_EXPORT_PATH = "avatar-c4-model.json";
+    public static final String HASH_SUFFIX = ".sha256";
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final String VIEWS_PROPERTY = "c4.export.views";
+    /** Appended to the export name (without extensions) to name the directory of the per-view files */
+    public static final String VIEWS_DIRECTORY_SUFFIX = "-views";
+    /** Content hash of the export the per-view files were written from */
+    public static final String VIEWS_HASH_FILE = "views.sha256";
+
+    /**
+     * Result of one export.
+     */
+    public static class ExportResult {
+        /** The file that was written, including the gzip suffix if compressed */
+        public final Path file;
+        /** Hex-encoded SHA-256 of the uncompressed JSON */
+        public final String contentHash;
+        /** False if an identical export already existed and was left untouched */
+        public final boolean written;
+        /** Directory of the per-view files, or null if views are not exported separately */
+        public final Path viewsDirectory;
+        /** Number of per-view files that were created or changed */
+        public final int viewFilesWritten;
+
+        public ExportResult(Path file, String contentHash, boolean written, Path viewsDirectory, int viewFilesWritten) {
+            this.file = file;
+            this.contentHash = contentHash;
+            this.written = written;
+            this.viewsDirectory = viewsDirectory;
+            this.viewFilesWritten = viewFilesWritten;
+        }
+    }
+
+    /**
+     * @return The export file from {@value #PATH_PROPERTY}, or {@value #DEFAULT_EXPORT_PATH}
+     */
+    public static String defaultExportPath() {
+        String path = System.getProperty(PATH_PROPERTY, "").trim();
+        return path.isEmpty() ? DEFAULT_EXPORT_PATH : path;
+    }
+
+    /**
+     * @return true if {@value #COMPACT_PROPERTY} requests JSON without indentation
+     */
+    public static boolean isCompact() {
+        return Boolean.getBoolean(COMPACT_PROPERTY);
+    }
+
+    /**
+     * @return true if {@value #GZIP_PROPERTY} requests a compressed export
+     */
+    public static boolean isGzip() {
+        return Boolean.getBoolean(GZIP_PROPERTY);
+    }
+
+    /**
+     * @return true if {@value #VIEWS_PROPERTY} requests one additional file per view
+     */
+    public static boolean isViews() {
+        return Boolean.getBoolean(VIEWS_PROPERTY);
+    }
+
+    /**
+     * Returns the file an export to {@code outputPath} is written to: the path itself, with
+     * {@value #GZIP_SUFFIX} appended when compression is enabled and the path lacks it.
+     *
+     * @param outputPath The configured export path
+     * @return The file that is actually written
+     */
+    public static Path resolveOutputFile(String outputPath) {
+        if (isGzip() && !outputPath.endsWith(GZIP_SUFFIX)) {
+            outputPath += GZIP_SUFFIX;
+        }
+        return Path.of(outputPath).toAbsolutePath();
+    }
+
+    /**
+     * @param exportFile An export file
+     * @return The file holding the content hash of that export
+     */
+    public static Path hashFileOf(Path exportFile) {
+        return exportFile.resolveSibling(exportFile.getFileName() + HASH_SUFFIX);
+    }
+
+    /**
+     * @param exportFile An export file
+     * @return The directory holding the per-view files of that export
+     */
+    public static Path viewsDirectoryOf(Path exportFile) {
+        return siblingDirectory(exportFile, VIEWS_DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Names a directory next to an export after the export, without its extensions.
+     *
+     * @param exportFile An export file, such as {@code model.json.gz}
+     * @param suffix     Appended to the name, such as {@value #VIEWS_DIRECTORY_SUFFIX}
+     * @return The directory, such as {@code model-views}
+     */
+    public static Path siblingDirectory(Path exportFile, String suffix) {
+        String name = exportFile.getFileName().toString();
+        if (name.endsWith(GZIP_SUFFIX)) {
+            name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+        }
+        if (name.endsWith(".json")) {
+            name = name.substring(0, name.length() - ".json".length());
+        }
+        return exportFile.resolveSibling(name + suffix);
+    }
+
+    /**
+     * Exports the workspace with the settings from the system properties and stores its content hash.
+     *
+     * @param workspace  The workspace to export
+     * @param outputPath The export file; {@value #GZIP_SUFFIX} is appended when compressing
+     * @return The export file, the hash of its JSON and what was written
+     * @throws Exception if the workspace cannot be serialized or written
+     */
+    public static ExportResult export(Workspace workspace, String outputPath) throws Exception {
+        return export(workspace, resolveOutputFile(outputPath), isCompact(), isGzip(), isViews());
+    }
+
+    /**
+     * Exports the workspace and stores its content hash next to it. If the hash equals the stored
+     * hash of an existing export, neither file is touched.
+     *
+     * @param workspace The workspace to export
+     * @param file      The file to write
+     * @param compact   Write the JSON without indentation
+     * @param gzip      Compress the file
+     * @param views     Also write one file per view into {@link #viewsDirectoryOf(Path)}
+     * @return The export file, the hash of its JSON and what was written
+     * @throws Exception if the workspace cannot be serialized or written
+     */
+    public static ExportResult export(Workspace workspace, Path file, boolean compact, boolean gzip,
+                                      boolean views) throws Exception {
+        MessageDigest digest = sha256();
+        Path previousHash = Files.exists(file) ? hashFileOf(file) : null;
+        byte[] json = null;
+        Path temp = null;
+        if (views) {
+            // Partitioning needs the whole document anyway, so it is serialized once into memory
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            writeJson(workspace, buffer, digest, compact, false);
+            json = buffer.toByteArray();
+        } else {
+            // Serialized once, straight into a temporary file, and hashed on the way
+            temp = AtomicFileWriter.writeTemp(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+                    out -> writeJson(workspace, out, digest, compact, gzip));
+        }
+        String contentHash = hex(digest.digest());
+
+        boolean written = previousHash == null || !contentHash.equals(readHash(previousHash));
+        if (!written) {
+            if (temp != null) {
+                Files.delete(temp);
+            }
+        } else {
+            if (temp == null) {
+                byte[] content = json;
+                temp = AtomicFileWriter.writeTemp(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+                        out -> writeBytes(content, out, gzip));
+            }
+            AtomicFileWriter.moveAtomically(temp, file);
+            byte[] hashLine = (contentHash + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            AtomicFileWriter.write(hashFileOf(file), out -> out.write(hashLine));
+        }
+
+        int viewFilesWritten = views ? writeViews(json, viewsDirectoryOf(file), contentHash, compact, gzip) : 0;
+        return new ExportResult(file, contentHash, written, views ? viewsDirectoryOf(file) : null, viewFilesWritten);
+    }
+
+    /**
+     * Writes one workspace document per view. Each holds the view, the view configuration and
+     * the part of the model the view shows: its elements with their parents and the view's
+     * relationships. Files whose content is unchanged are left alone, files of views that no
+     * longer exist are deleted.
+     *
+     * @return Number of view files written
+     */
+    private static int writeViews(byte[] json, Path directory, String contentHash,
+                                  boolean compact, boolean gzip) throws IOException {
+        Path hashFile = directory.resolve(VIEWS_HASH_FILE);
+        if (contentHash.equals(readHash(hashFile))) {
+            return 0;
+        }
+
+        ObjectMapper mapper = ConfigJson.mapper();
+        ObjectWriter writer = compact ? mapper.writer() : mapper.writerWithDefaultPrettyPrinter();
+        JsonNode root = mapper.readTree(json);
+        Files.createDirectories(directory);
+
+        Set<String> fileNames = new HashSet<>();
+        int written = 0;
+        Iterator<Map.Entry<String, JsonNode>> viewTypes = root.path("views").fields();
+        while (viewTypes.hasNext()) {
+            Map.Entry<String, JsonNode> viewType = viewTypes.next();
+            if (!viewType.getValue().isArray()) {
+                continue;
+            }
+            for (JsonNode view : viewType.getValue()) {
+                // Views without their own elements (filtered and image views) cannot be partitioned
+                if (!view.hasNonNull("key") || !view.path("elements").isArray()) {
+                    continue;
+                }
+                String fileName = uniqueFileName(view.get("key").asText(), ".json" + (gzip ? GZIP_SUFFIX : ""), fileNames);
+
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                writeBytes(writer.writeValueAsBytes(partition(root, viewType.getKey(), view)), encoded, gzip);
+                byte[] content = encoded.toByteArray();
+
+                Path target = directory.resolve(fileName);
+                if (!Files.exists(target) || !Arrays.equals(Files.readAllBytes(target), content)) {
+                    AtomicFileWriter.write(target, out -> out.write(content));
+                    written++;
+                }
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stale : files.filter(f -> isViewFile(f) && !fileNames.contains(f.getFileName().toString())).toList()) {
+                Files.deleteIfExists(stale);
+            }
+        }
+
+        byte[] hashLine = (contentHash + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        AtomicFileWriter.write(hashFile, out -> out.write(hashLine));
+        return written;
+    }
+
+    /**
+     * Turns a view key into a file name that is not yet in {@code used} and adds it. Keys that
+     * differ only in characters not allowed in file names get a numeric suffix instead of
+     * overwriting each other.
+     *
+     * @param key       A view key
+     * @param extension The file extension, including the dot
+     * @param used      File names already taken; the returned name is added
+     * @return The file name for the key
+     */
+    public static String uniqueFileName(String key, String extension, Set<String> used) {
+        String base = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        String fileName = base + extension;
+        for (int n = 2; !used.add(fileName); n++) {
+            fileName = base + "-" + n + extension;
+        }
+        return fileName;
+    }
+
+    private static boolean isViewFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".json") || name.endsWith(".json" + GZIP_SUFFIX);
+    }
+
+    /**
+     * Builds the workspace document of one view.
+     */
+    private static ObjectNode partition(JsonNode root, String viewType, JsonNode view) {
+        Set<String> elementIds = new HashSet<>();
+        for (JsonNode element : view.path("elements")) {
+            elementIds.add(element.path("id").asText());
+        }
+        // The scope of a container or component view is not one of its elements
+        for (String scope : List.of("softwareSystemId", "containerId")) {
+            if (view.hasNonNull(scope)) {
+                elementIds.add(view.get(scope).asText());
+            }
+        }
+        Set<String> relationshipIds = new HashSet<>();
+        for (JsonNode relationship : view.path("relationships")) {
+            relationshipIds.add(relationship.path("id").asText());
+        }
+
+        ObjectMapper mapper = ConfigJson.mapper();
+        ObjectNode partition = mapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            switch (field.getKey()) {
+                case "model" -> {
+                    ObjectNode model = partition.putObject("model");
+                    field.getValue().fields().forEachRemaining(entry -> model.set(entry.getKey(),
+                            isElementArray(entry.getValue())
+                                    ? filterElements(entry.getValue(), elementIds, relationshipIds)
+                                    : entry.getValue()));
+                }
+                case "views" -> {
+                    ObjectNode views = partition.putObject("views");
+                    views.putArray(viewType).add(view);
+                    if (field.getValue().has("configuration")) {
+                        views.set("configuration", field.getValue().get("configuration"));
+                    }
+                }
+                // Documentation and decisions are not part of any view
+                case "documentation" -> { }
+                default -> partition.set(field.getKey(), field.getValue());
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Keeps the elements of an element array that are shown or contain a shown element, with
+     * only the shown relationships.
+     */
+    private static ArrayNode filterElements(JsonNode elements, Set<String> elementIds, Set<String> relationshipIds) {
+        ArrayNode kept = ConfigJson.mapper().createArrayNode();
+        for (JsonNode element : elements) {
+            ObjectNode copy = ConfigJson.mapper().createObjectNode();
+            boolean shown = elementIds.contains(element.path("id").asText());
+            Iterator<Map.Entry<String, JsonNode>> fields = element.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().equals("relationships")) {
+                    ArrayNode relationships = copy.putArray("relationships");
+                    for (JsonNode relationship : field.getValue()) {
+                        if (relationshipIds.contains(relationship.path("id").asText())) {
+                            relationships.add(relationship);
+                        }
+                    }
+                } else if (isElementArray(field.getValue())) {
+                    ArrayNode children = filterElements(field.getValue(), elementIds, relationshipIds);
+                    shown |= !children.isEmpty();
+                    copy.set(field.getKey(), children);
+                } else {
+                    copy.set(field.getKey(), field.getValue());
+                }
+            }
+            if (shown) {
+                kept.add(copy);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return true for arrays of model elements (people, containers, deployment nodes, ...)
+     */
+    private static boolean isElementArray(JsonNode node) {
+        if (!node.isArray() || node.isEmpty()) {
+            return false;
+        }
+        for (JsonNode item : node) {
+            if (!item.isObject() || !item.has("id")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readHash(Path hashFile) {
+        if (!Files.exists(hashFile)) {
+            return null;
+        }
+        try {
+            return Files.readString(hashFile, StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            System.err.println("Warning: could not read export hash " + hashFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeBytes(byte[] content, OutputStream out, boolean gzip) throws IOException {
+        if (!gzip) {
+            out.write(content);
+            return;
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+        compressed.write(content);
+        compressed.finish();
+    }
+
+    /**
+     * Streams the JSON into {@code out}, hashing it before compression.
+     */
+    private static void writeJson(Workspace workspace, OutputStream out, MessageDigest digest,
+                                  boolean compact, boolean gzip) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        Writer writer = new OutputStreamWriter(new DigestOutputStream(compressed != null ? compressed : out, digest),
+                StandardCharsets.UTF_8);
+        try {
+            // The JSON library closes its target; flushing instead leaves the gzip trailer to be written below
+            new JsonWriter(!compact).write(workspace, new FilterWriter(writer) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            });
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Workspace could not be serialized: " + e.getMessage(), e);
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
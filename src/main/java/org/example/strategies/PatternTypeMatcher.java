@@ -0,0 +1,35 @@
+package org.example.strategies;
+
+import com.structurizr.component.Type;
+import com.structurizr.component.matcher.TypeMatcher;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matches types whose fully qualified name matches a precompiled regular expression.
+ *
+ * <p>Behaves like Structurizr's {@code RegexTypeMatcher}, which evaluates the expression as a
+ * string for every scanned class, but compiles the pattern once when the strategy configuration
+ * is loaded. An invalid expression is therefore reported before any class file is read.</p>
+ */
+public class PatternTypeMatcher implements TypeMatcher {
+
+    private final Pattern pattern;
+
+    /**
+     * @param pattern The compiled pattern; the whole fully qualified name must match
+     */
+    public PatternTypeMatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public boolean matches(Type type) {
+        return pattern.matcher(type.getFullyQualifiedName()).matches();
+    }
+
+    @Override
+    public String toString() {
+        return "PatternTypeMatcher{pattern=" + pattern.pattern() + "}";
+    }
+}
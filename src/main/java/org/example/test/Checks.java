@@ -0,0 +1,40 @@
+package org.example.test;
+
+
+/**
+ * Check counter shared by the main-method tests: each check prints ✓ or ✗, and
+ * {@link #finish()} ends the test with exit code 1 if any check failed.
+ */
+public final class Checks {
+
+    private static int failures = 0;
+
+    private Checks() {
+    }
+
+    /**
+     * Prints the outcome of one check and counts it if it failed.
+     *
+     * @param name   What was checked
+     * @param passed Whether the check passed
+     */
+    public static void check(String name, boolean passed) {
+        if (passed) {
+            System.out.println("✓ " + name);
+        } else {
+            System.err.println("✗ " + name);
+            failures++;
+        }
+    }
+
+    /**
+     * Exits with code 1 if a check failed, otherwise reports success.
+     */
+    public static void finish() {
+        if (failures > 0) {
+            System.err.println("\n" + failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("\nAll tests completed successfully!");
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.test;
+
+import org.example.model.ComponentDetail;
+import org.example.model.ComponentIndex;
+
+import java.util.List;
+
+
+public class ComponentIndexTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== Component Index Rule Test ===\n");
+
+        ComponentDetail exact = new ComponentDetail("OrderController", "Exact", "Java", "Configured by name", null);
+        ComponentDetail dotGlob = rule("Dotted", "order.v?.*", null, null);
+        // Capturing groups in a type pattern shift the group numbers of all later rules
+        ComponentDetail grouped = rule("Grouped", null, "com\\.acme\\.(web|api)\\.(\\w+)Gateway", null);
+        ComponentDetail controllers = rule("Controllers", "*Controller", null, null);
+        ComponentDetail acme = rule("Acme", null, null, "com.acme");
+        ComponentDetail services = rule("Services", "*Service", null, null);
+        ComponentDetail special = rule("Special", "a+b(c)", null, null);
+
+        ComponentIndex index = ComponentIndex.of(List.of(exact, dotGlob, grouped, controllers, acme, services, special));
+
+        System.out.println("1. Exact names beat rules...");
+        Checks.check("exact entry wins over *Controller", index.lookup("OrderController", "com.acme.web.OrderController") == exact);
+        Checks.check("exact names are compared case-insensitively", index.lookup(" ordercontroller ", null) == exact);
+
+        System.out.println("2. Glob escaping...");
+        Checks.check("'.' in a glob is literal", index.lookup("order.v2.impl", null) == dotGlob);
+        Checks.check("'.' in a glob does not match other characters", index.lookup("orderXv2Ximpl", null) == null);
+        Checks.check("'?' matches exactly one character", index.lookup("order.v10.impl", null) == null);
+        Checks.check("regex characters in a glob are literal", index.lookup("A+B(C)", null) == special);
+        Checks.check("'+' is not a quantifier", index.lookup("aab(c)", null) == null);
+
+        System.out.println("3. Package lookahead...");
+        Checks.check("class in the package matches", index.lookup("Billing", "com.acme.Billing") == acme);
+        Checks.check("class in a subpackage matches", index.lookup("Billing", "com.acme.billing.Billing") == acme);
+        Checks.check("package prefix of another package does not match", index.lookup("Billing", "com.acmex.Billing") == null);
+        Checks.check("package rules need a type", index.lookup("Billing", null) == null);
+
+        System.out.println("4. First rule wins...");
+        Checks.check("*Controller listed before the package rule", index.lookup("UserController", "com.acme.web.UserController") == controllers);
+        Checks.check("package rule listed before *Service", index.lookup("UserService", "com.acme.UserService") == acme);
+        Checks.check("*Service outside the package", index.lookup("UserService", "org.other.UserService") == services);
+        Checks.check("type pattern with groups", index.lookup("PaymentGateway", "com.acme.api.PaymentGateway") == grouped);
+        Checks.check("rule after a grouped type pattern", index.lookup("OtherController", "org.other.OtherController") == controllers);
+        Checks.check("no rule matches", index.lookup("Helper", "org.other.Helper") == null);
+
+        System.out.println("5. Anchored type patterns...");
+        ComponentDetail mappers = rule("Mappers", null, ".*Mapper$", null);
+        ComponentDetail inner = rule("Inner", null, "^com\\.acme\\..*\\$Handler\\z", null);
+        ComponentDetail dollar = rule("Dollar", null, "[$]Proxy.*", null);
+        ComponentIndex anchored = ComponentIndex.of(List.of(mappers, inner, dollar));
+        Checks.check("'$' matches at the end of the type", anchored.lookup("OrderMapper", "com.acme.OrderMapper") == mappers);
+        Checks.check("'$' does not match inside the type", anchored.lookup("OrderMapperImpl", "com.acme.OrderMapperImpl") == null);
+        Checks.check("escaped '$' and '\\z'", anchored.lookup("Handler", "com.acme.Outer$Handler") == inner);
+        Checks.check("'\\z' does not match inside the type", anchored.lookup("Handler", "com.acme.Outer$HandlerImpl") == null);
+        Checks.check("'$' in a character class is literal", anchored.lookup("Proxy", "$Proxy12") == dollar);
+
+        System.out.println("6. Invalid rules...");
+        try {
+            ComponentIndex.of(List.of(rule("Backreference", null, "(a)\\1", null)));
+            Checks.check("backreferences are rejected", false);
+        } catch (IllegalArgumentException e) {
+            Checks.check("backreferences are rejected", e.getMessage().contains("Backreference"));
+        }
+
+        Checks.finish();
+    }
+
+    private static ComponentDetail rule(String label, String namePattern, String typePattern, String packageName) {
+        return new ComponentDetail(label, label, "Java", "Rule " + label, null, namePattern, typePattern, packageName);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.test;
+
+import org.example.c4.ComponentViewPartitioner;
+import org.example.c4.ComponentViewPartitioner.Partition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class ComponentViewPartitionerTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== Component View Partitioner Test ===\n");
+
+        // Small groups that fit together, one group exactly at the cap and one far above it
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        groups.put("com.acme.a", members("com.acme.a", 3));
+        groups.put("com.acme.b", members("com.acme.b", 4));
+        groups.put("com.acme.c", members("com.acme.c", 10));
+        groups.put("com.acme.d", members("com.acme.d", 23));
+        groups.put("com.acme.e", members("com.acme.e", 1));
+        int max = 10;
+
+        List<Partition<String>> partitions = ComponentViewPartitioner.pack(groups, max);
+
+        System.out.println("1. Capping...");
+        Checks.check("no view exceeds " + max + " components",
+                partitions.stream().allMatch(partition -> partition.components.size() <= max));
+        Checks.check("no view is empty", partitions.stream().noneMatch(partition -> partition.components.isEmpty()));
+
+        System.out.println("2. Oversized groups...");
+        List<Partition<String>> parts = new ArrayList<>();
+        for (Partition<String> partition : partitions) {
+            if (partition.groups.contains("com.acme.d")) {
+                parts.add(partition);
+            }
+        }
+        Checks.check("group of 23 is split into 3 parts", parts.size() == 3);
+        Checks.check("parts hold only that group", parts.stream().allMatch(partition -> partition.groups.size() == 1));
+        Checks.check("parts are labelled", parts.get(0).label().equals("com.acme.d (part 1/3)") &&
+                parts.get(2).label().equals("com.acme.d (part 3/3)"));
+        Checks.check("group at the cap is not split", partitions.stream()
+                .filter(partition -> partition.groups.contains("com.acme.c"))
+                .allMatch(partition -> partition.part == null && partition.components.size() == 10));
+        Checks.check("small consecutive groups share a view", partitions.get(0).groups.equals(List.of("com.acme.a", "com.acme.b")) &&
+                partitions.get(0).label().equals("com.acme.a .. com.acme.b"));
+
+        System.out.println("3. Coverage...");
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Partition<String> partition : partitions) {
+            for (String component : partition.components) {
+                occurrences.merge(component, 1, Integer::sum);
+            }
+        }
+        int total = groups.values().stream().mapToInt(List::size).sum();
+        Checks.check("every component lands in a view", occurrences.size() == total);
+        Checks.check("no component lands in two views", occurrences.values().stream().allMatch(count -> count == 1));
+
+        System.out.println("4. Invalid cap...");
+        try {
+            ComponentViewPartitioner.pack(groups, 0);
+            Checks.check("a cap of 0 is rejected", false);
+        } catch (IllegalArgumentException e) {
+            Checks.check("a cap of 0 is rejected", true);
+        }
+
+        Checks.finish();
+    }
+
+    private static List<String> members(String group, int count) {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(group + ".Component" + i);
+        }
+        return members;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.test;
+
+import org.example.service.ComponentSerializationService.ComponentSnapshot;
+import org.example.service.ComponentSerializationService.ContainerSnapshot;
+import org.example.service.ComponentSerializationService.SerializedComponent;
+import org.example.service.ComponentSerializationService.SerializedRelationship;
+import org.example.service.SnapshotDiffEngine;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+public class SnapshotDiffEngineTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== Snapshot Diff Engine Test ===\n");
+
+        // One container large enough for the parallel path, plus two small ones
+        ComponentSnapshot oldSnapshot = new ComponentSnapshot();
+        ComponentSnapshot newSnapshot = new ComponentSnapshot();
+        oldSnapshot.containers.put("large", container(0, 5_000));
+        newSnapshot.containers.put("large", container(100, 5_100));
+        oldSnapshot.containers.put("removed", container(0, 10));
+        newSnapshot.containers.put("added", container(0, 10));
+
+        // Modify some shared components
+        for (int i = 200; i < 5_000; i += 250) {
+            SerializedComponent component = newSnapshot.containers.get("large").components.get("Component" + i);
+            component.description = "changed";
+            component.tags.add("New");
+            component.relationships.add(relationship("Component" + (i + 1)));
+        }
+
+        SnapshotDiffEngine.SnapshotDiff parallel = SnapshotDiffEngine.diff(oldSnapshot, newSnapshot, true);
+        SnapshotDiffEngine.SnapshotDiff sequential = SnapshotDiffEngine.diff(oldSnapshot, newSnapshot, false);
+
+        Checks.check("parallel and sequential diffs are equal", describe(parallel).equals(describe(sequential)));
+        Checks.check("100 added + 10 added container = 110 added", count(parallel, SnapshotDiffEngine.ChangeType.ADDED) == 110);
+        Checks.check("100 removed + 10 removed container = 110 removed", count(parallel, SnapshotDiffEngine.ChangeType.REMOVED) == 110);
+        Checks.check("20 modified", count(parallel, SnapshotDiffEngine.ChangeType.MODIFIED) == 20);
+        Checks.check("no changes between identical snapshots", !SnapshotDiffEngine.diff(oldSnapshot, oldSnapshot).hasChanges());
+
+        Checks.finish();
+    }
+
+    private static ContainerSnapshot container(int from, int to) {
+        ContainerSnapshot container = new ContainerSnapshot();
+        for (int i = from; i < to; i++) {
+            SerializedComponent component = new SerializedComponent();
+            component.name = "Component" + i;
+            component.description = "Component " + i;
+            component.technology = "Java";
+            component.tags.add("Component");
+            container.components.put(component.name, component);
+        }
+        container.componentCount = container.components.size();
+        return container;
+    }
+
+    private static SerializedRelationship relationship(String target) {
+        SerializedRelationship relationship = new SerializedRelationship();
+        relationship.target = target;
+        relationship.description = "uses";
+        return relationship;
+    }
+
+    private static long count(SnapshotDiffEngine.SnapshotDiff diff, SnapshotDiffEngine.ChangeType type) {
+        return diff.changes.stream().filter(change -> change.changeType == type).count();
+    }
+
+    private static List<String> describe(SnapshotDiffEngine.SnapshotDiff diff) {
+        return diff.changes.stream()
+                .map(change -> change.componentKey + "|" + change.changeType + "|" + change.fieldChanges +
+                        "|" + change.tagsAdded + "|" + change.tagsRemoved +
+                        "|" + change.relationshipsAdded + "|" + change.relationshipsRemoved)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Crash-safe file writing utility.
+ *
+ * <p>Content is streamed through a buffer into a temporary file in the target directory,
+ * forced to disk, and only then renamed over the target. Readers therefore see either the
+ * previous file or the complete new one, never a truncated file left behind by a killed
+ * process. {@link #linkAtomically(Path, Path)} publishes an already written file under a
+ * second name without writing its content again.</p>
+ */
+public class AtomicFileWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Streams content into the supplied output. The stream is buffered and must not be closed by the writer.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Atomically replaces {@code target} with the content produced by {@code writer}.
+     *
+     * @param target The file to create or replace
+     * @param writer Callback streaming the file content
+     * @throws IOException if writing, syncing or renaming fails; the target is left untouched
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        Path temp = writeTemp(target.toAbsolutePath().getParent(), target.getFileName().toString(), writer);
+        moveAtomically(temp, target);
+    }
+
+    /**
+     * Writes content into a new, fsynced temporary file in {@code directory}.
+     *
+     * @param directory Directory to create the temporary file in (created if missing)
+     * @param baseName  Name used as the temporary file's prefix, for easier diagnosis of leftovers
+     * @param writer    Callback streaming the file content
+     * @return Path of the fully written temporary file
+     * @throws IOException if the file cannot be written; the temporary file is removed
+     */
+    public static Path writeTemp(Path directory, String baseName, ContentWriter writer) throws IOException {
+        Files.createDirectories(directory);
+        // createFile (unlike createTempFile) keeps the umask-derived permissions of a normal write
+        Path temp = Files.createFile(tempPath(directory, baseName));
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            BufferedOutputStream buffered = new BufferedOutputStream(fileOut, BUFFER_SIZE);
+            writer.write(new NonClosingOutputStream(buffered));
+            buffered.flush();
+            fileOut.getChannel().force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        return temp;
+    }
+
+    /**
+     * Renames {@code source} over {@code target} atomically where the file system allows it.
+     *
+     * @param source Fully written file to publish
+     * @param target Final file name
+     * @throws IOException if the rename fails
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Publishes {@code existing} under the additional name {@code target} without rewriting its content.
+     *
+     * <p>A hard link is created under a temporary name and renamed over the target, so the
+     * target is replaced atomically. File systems without hard link support fall back to a
+     * copy that is synced before the rename.</p>
+     *
+     * @param existing A complete file that should also be visible as {@code target}
+     * @param target   The name to publish, replaced if present
+     * @throws IOException if neither linking nor copying succeeds
+     */
+    public static void linkAtomically(Path existing, Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = tempPath(directory, target.getFileName().toString());
+
+        try {
+            Files.createLink(temp, existing);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.deleteIfExists(temp);
+            Files.copy(existing, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+
+        moveAtomically(temp, target);
+    }
+
+    private static Path tempPath(Path directory, String baseName) {
+        return directory.resolve("." + baseName + "." + ProcessHandle.current().pid() + "." + System.nanoTime() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Forces a directory entry update to disk so renames survive a crash.
+     * Not every platform allows opening directories; there the rename is already as durable as it gets.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is best-effort (unsupported on Windows)
+        }
+    }
+
+    /**
+     * Shields the underlying stream from being closed by serializers that close their target.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
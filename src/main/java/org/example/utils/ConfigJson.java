@@ -0,0 +1,92 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared JSON readers for configuration files.
+ *
+ * <p>All configuration loaders use the single {@link ObjectMapper} configured here instead of
+ * creating a mapper per call. Its per-type {@link ObjectReader}s are created once and reused;
+ * they are immutable and thread-safe, so concurrent loaders can share them. Files that are
+ * validated are read once into a tree with {@link #readTree(File)}, the tree is validated and
+ * then bound with {@link #treeToValue(JsonNode, Class)}, so the file is parsed only once.</p>
+ */
+public class ConfigJson {
+
+    /** The shared mapper; configured here once and never reconfigured afterwards */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared reader binding JSON to {@code type}.
+     *
+     * @param type The target type
+     * @return Immutable, thread-safe reader
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, key -> MAPPER.readerFor(type));
+    }
+
+    /**
+     * Parses a file into a tree.
+     *
+     * @param file The JSON file
+     * @return The root node
+     * @throws IOException if the file cannot be read or is not valid JSON
+     */
+    public static JsonNode readTree(File file) throws IOException {
+        return MAPPER.readTree(file);
+    }
+
+    /**
+     * Parses a stream into a tree.
+     *
+     * @param in The JSON content
+     * @return The root node
+     * @throws IOException if the stream cannot be read or is not valid JSON
+     */
+    public static JsonNode readTree(InputStream in) throws IOException {
+        return MAPPER.readTree(in);
+    }
+
+    /**
+     * Binds an already parsed tree without reading the file again.
+     *
+     * @param tree The parsed JSON
+     * @param type The target type
+     * @return The bound value
+     * @throws IOException if the tree does not match the type
+     */
+    public static <T> T treeToValue(JsonNode tree, Class<T> type) throws IOException {
+        return readerFor(type).readValue(tree);
+    }
+
+    /**
+     * Reads and binds a file that is not validated, in a single streaming pass.
+     *
+     * @param file The JSON file
+     * @param type The target type
+     * @return The bound value
+     * @throws IOException if the file cannot be read or does not match the type
+     */
+    public static <T> T readValue(File file, Class<T> type) throws IOException {
+        return readerFor(type).readValue(file);
+    }
+
+    /**
+     * @return The shared mapper, for callers that need a type reference reader or tree conversion
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+}
@@ -10,7 +10,13 @@ import com.networknt.schema.ValidationMessage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JSON Schema Validator utility class for validating C4 model configuration files.
@@ -19,18 +25,32 @@ import java.util.Set;
  * conform to the defined schema before processing. It helps catch configuration errors
  * early and provides detailed error messages for troubleshooting.
  * 
+ * Compiled schemas are cached process-wide, one per schema location and tagged with the
+ * content hash, so validating many documents against the same schema compiles it only once
+ * while an edited schema file replaces its previous version on the next validation.
+ * Validators are thread-safe.
+ * 
  * @author Generated Documentation
  * @version 1.0
  * @since 2025-06-25
  */
 public class JsonSchemaValidator {
-    
+
+    /** Directory of the project's default schemas, used when a document has no schema next to it */
+    public static final String DEFAULT_SCHEMA_DIRECTORY = "src/main/java/org/example/json/";
+
+    /** Validator behind {@link #validateDocument}; compiled schemas are cached across all loads */
+    private static final JsonSchemaValidator SHARED = new JsonSchemaValidator();
+
+    /** Latest compiled schema by location; an edited schema replaces the entry of its previous content */
+    private static final Map<String, CompiledSchema> COMPILED_SCHEMAS = new ConcurrentHashMap<>();
+
     private final JsonSchemaFactory factory;
     private final ObjectMapper objectMapper;
     
     public JsonSchemaValidator() {
         this.factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-        this.objectMapper = new ObjectMapper();
+        this.objectMapper = ConfigJson.mapper();
     }
     
     /**
@@ -42,13 +62,22 @@ public class JsonSchemaValidator {
      * @throws IOException If files cannot be read
      */
     public ValidationResult validateJsonFile(File jsonFile, File schemaFile) throws IOException {
-        JsonNode jsonNode = objectMapper.readTree(jsonFile);
-        JsonNode schemaNode = objectMapper.readTree(schemaFile);
-        
-        JsonSchema schema = factory.getSchema(schemaNode);
-        Set<ValidationMessage> validationMessages = schema.validate(jsonNode);
-        
-        return new ValidationResult(validationMessages.isEmpty(), validationMessages);
+        return validateJson(objectMapper.readTree(jsonFile), schemaFile);
+    }
+
+    /**
+     * Validates an already parsed JSON tree against a schema file, so the document does not
+     * have to be read again for binding.
+     *
+     * @param jsonNode The parsed JSON document
+     * @param schemaFile The schema file to validate against
+     * @return ValidationResult containing validation status and any errors
+     * @throws IOException If the schema file cannot be read
+     */
+    public ValidationResult validateJson(JsonNode jsonNode, File schemaFile) throws IOException {
+        byte[] schemaContent = Files.readAllBytes(schemaFile.toPath());
+        JsonSchema schema = compiledSchema("file:" + schemaFile.getAbsolutePath(), schemaContent);
+        return validate(schema, jsonNode);
     }
     
     /**
@@ -60,22 +89,128 @@ public class JsonSchemaValidator {
      * @throws IOException If files cannot be read
      */
     public ValidationResult validateJsonFileWithResource(File jsonFile, String schemaResourcePath) throws IOException {
-        JsonNode jsonNode = objectMapper.readTree(jsonFile);
-        
+        return validateJsonWithResource(objectMapper.readTree(jsonFile), schemaResourcePath);
+    }
+
+    /**
+     * Validates an already parsed JSON tree against a schema from classpath resource.
+     *
+     * @param jsonNode The parsed JSON document
+     * @param schemaResourcePath The classpath path to the schema file
+     * @return ValidationResult containing validation status and any errors
+     * @throws IOException If the schema resource cannot be read
+     */
+    public ValidationResult validateJsonWithResource(JsonNode jsonNode, String schemaResourcePath) throws IOException {
+        byte[] schemaContent;
         try (InputStream schemaStream = getClass().getClassLoader().getResourceAsStream(schemaResourcePath)) {
             if (schemaStream == null) {
                 throw new IOException("Schema resource not found: " + schemaResourcePath);
             }
-            
-            JsonNode schemaNode = objectMapper.readTree(schemaStream);
-            JsonSchema schema = factory.getSchema(schemaNode);
-            Set<ValidationMessage> validationMessages = schema.validate(jsonNode);
-            
-            return new ValidationResult(validationMessages.isEmpty(), validationMessages);
+            schemaContent = schemaStream.readAllBytes();
         }
+
+        JsonSchema schema = compiledSchema("classpath:" + schemaResourcePath, schemaContent);
+        return validate(schema, jsonNode);
     }
-    
 
+    /**
+     * Resolves the schema file a document is validated against: the schema next to the
+     * document, otherwise the project default. If the returned file does not exist,
+     * validation falls back to the classpath schema.
+     *
+     * @param document The JSON document
+     * @param schemaFileName File name of the schema, e.g. "strategyConfigSchema.json"
+     * @return The schema file to validate with
+     */
+    public static File schemaFileFor(File document, String schemaFileName) {
+        File sibling = new File(document.getAbsoluteFile().getParentFile(), schemaFileName);
+        return sibling.exists() ? sibling : new File(DEFAULT_SCHEMA_DIRECTORY + schemaFileName);
+    }
+
+    /**
+     * Validates a parsed document against the schema resolved by {@link #schemaFileFor(File, String)},
+     * or the classpath schema if that file does not exist. Without any schema, validation is
+     * skipped with a warning.
+     *
+     * @param tree The parsed document
+     * @param document The file the document was read from, used to locate the schema
+     * @param schemaFileName File name of the schema
+     * @param schemaResourcePath Classpath path of the fallback schema
+     * @param description What the document is, e.g. "Strategy configuration", for messages
+     * @return true if the document was validated, false if no schema was found
+     * @throws IOException If the schema cannot be read or the document is invalid
+     */
+    public static boolean validateDocument(JsonNode tree, File document, String schemaFileName,
+                                           String schemaResourcePath, String description) throws IOException {
+        File schemaFile = schemaFileFor(document, schemaFileName);
+
+        ValidationResult result;
+        if (schemaFile.exists()) {
+            result = SHARED.validateJson(tree, schemaFile);
+        } else {
+            try {
+                result = SHARED.validateJsonWithResource(tree, schemaResourcePath);
+            } catch (IOException e) {
+                System.out.println(" Warning: Schema validation of " + description + " skipped - schema file not found");
+                return false;
+            }
+        }
+
+        if (!result.isValid()) {
+            System.err.println(" " + description + " validation failed:");
+            System.err.println(result.getErrorSummary());
+            throw new IOException(description + " validation failed: " + result.getErrorSummary());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the compiled schema for the given content, compiling it when the location
+     * is new or its content changed since it was last compiled.
+     *
+     * @param location Where the schema was read from, the cache key
+     * @param schemaContent The raw schema document
+     * @return The compiled, thread-safe schema
+     * @throws IOException If the schema is not valid JSON
+     */
+    private JsonSchema compiledSchema(String location, byte[] schemaContent) throws IOException {
+        String contentHash = sha256(schemaContent);
+        CompiledSchema cached = COMPILED_SCHEMAS.get(location);
+        if (cached != null && cached.contentHash.equals(contentHash)) {
+            return cached.schema;
+        }
+        // Compiling twice under a race is harmless; both results are equivalent
+        JsonSchema schema = factory.getSchema(objectMapper.readTree(schemaContent));
+        COMPILED_SCHEMAS.put(location, new CompiledSchema(contentHash, schema));
+        return schema;
+    }
+
+    /**
+     * A compiled schema and the hash of the content it was compiled from.
+     */
+    private static class CompiledSchema {
+        final String contentHash;
+        final JsonSchema schema;
+
+        CompiledSchema(String contentHash, JsonSchema schema) {
+            this.contentHash = contentHash;
+            this.schema = schema;
+        }
+    }
+
+    private static ValidationResult validate(JsonSchema schema, JsonNode jsonNode) {
+        Set<ValidationMessage> validationMessages = schema.validate(jsonNode);
+        return new ValidationResult(validationMessages.isEmpty(), validationMessages);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
     
     /**
      * Validation result containing the validation status and any error messages.
@@ -5,7 +5,18 @@ import com.structurizr.component.matcher.NameSuffixTypeMatcher;
 import com.structurizr.component.matcher.RegexTypeMatcher;
 import com.structurizr.component.matcher.TypeMatcher;
 import org.example.strategies.NewComponentStrategy;
+import org.example.strategies.PatternTypeMatcher;
 import org.example.config.StrategyConfig;
+import org.example.config.StrategyConfiguration;
+import org.example.config.StrategyPlan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Factory class for creating TypeMatcher instances from strategy configurations.
@@ -18,7 +29,7 @@ import org.example.config.StrategyConfig;
  * <p>The factory supports all major component discovery patterns:</p>
  * <ul>
  *   <li><strong>ANNOTATION</strong> - Creates {@link AnnotationTypeMatcher} for annotation-based discovery</li>
- *   <li><strong>REGEX</strong> - Creates {@link RegexTypeMatcher} for pattern-based discovery</li>
+ *   <li><strong>REGEX</strong> - Creates a {@link PatternTypeMatcher} (a precompiled {@link RegexTypeMatcher}) for pattern-based discovery</li>
  *   <li><strong>NAME_SUFFIX</strong> - Creates {@link NameSuffixTypeMatcher} for convention-based discovery</li>
  *   <li><strong>CUSTOM_ANNOTATION</strong> - Creates custom {@link NewComponentStratgy} for advanced annotation logic</li>
  * </ul>
@@ -52,6 +63,75 @@ import org.example.config.StrategyConfig;
  * @since 2025-06-26
  */
 public class StrategyFactory {
+
+    /** A fully qualified Java type name, as required for annotation descriptors */
+    private static final Pattern QUALIFIED_NAME =
+            Pattern.compile("[\\p{L}_$][\\p{L}\\p{N}_$]*(\\.[\\p{L}_$][\\p{L}\\p{N}_$]*)*");
+
+    /**
+     * Validates every enabled strategy, compiles its matcher once and builds the
+     * {@link StrategyPlan} of the configuration.
+     *
+     * <p>Called when a strategy configuration is loaded, so a misconfigured strategy (missing
+     * parameter, invalid regular expression, malformed annotation type) rejects the whole
+     * configuration before any class file is read, instead of failing per container in the
+     * middle of a scan. The compiled matchers are kept on the strategies and reused by every
+     * scan. Strategies with the same type and parameters share one matcher instance.</p>
+     *
+     * <p>Strategies that are already compiled are skipped, and an existing plan is kept. A
+     * configuration read from the config cache therefore only recompiles its matchers, which
+     * are not serialized.</p>
+     *
+     * @param configuration The loaded strategy configuration
+     * @throws IllegalArgumentException listing every invalid strategy
+     */
+    public static void compileStrategies(StrategyConfiguration configuration) {
+        if (configuration.getStrategies() == null) {
+            throw new IllegalArgumentException("Strategy configuration defines no strategies");
+        }
+
+        Map<String, TypeMatcher> matchers = new HashMap<>();
+        for (StrategyConfig strategy : configuration.getStrategies()) {
+            if (strategy.getCompiledMatcher() != null) {
+                matchers.putIfAbsent(matcherKey(strategy), strategy.getCompiledMatcher());
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (StrategyConfig strategy : configuration.getStrategies()) {
+            if (!strategy.isEnabled() || strategy.getCompiledMatcher() != null) {
+                continue;
+            }
+            try {
+                validateStrategyConfig(strategy);
+                TypeMatcher matcher = matchers.get(matcherKey(strategy));
+                if (matcher == null) {
+                    matcher = createMatcher(strategy);
+                    matchers.put(matcherKey(strategy), matcher);
+                }
+                strategy.setCompiledMatcher(matcher);
+            } catch (IllegalArgumentException e) {
+                problems.add("Strategy '" + strategy.getName() + "': " + e.getMessage());
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid strategy configuration:\n- " + String.join("\n- ", problems));
+        }
+
+        if (configuration.getPlan() == null) {
+            configuration.setPlan(StrategyPlan.build(configuration));
+        }
+    }
+
+    /**
+     * Identifies the matcher a strategy compiles to: its type and parameters, independent of
+     * name, container and parameter order.
+     */
+    private static String matcherKey(StrategyConfig strategy) {
+        Map<String, Object> config = strategy.getConfig() != null ? new TreeMap<>(strategy.getConfig()) : Map.of();
+        return strategy.getType() + "|" + config;
+    }
     
     /**
      * Creates a TypeMatcher from a strategy configuration.
@@ -112,6 +192,7 @@ public class StrategyFactory {
         if (annotationType == null) {
             throw new IllegalArgumentException("annotationType is required for ANNOTATION strategy");
         }
+        requireQualifiedName(annotationType, "ANNOTATION");
         return new AnnotationTypeMatcher(annotationType);
     }
     
@@ -123,15 +204,20 @@ public class StrategyFactory {
      * The pattern is applied to the complete canonical class name.</p>
      * 
      * @param config Strategy configuration containing the "pattern" parameter
-     * @return RegexTypeMatcher configured with the specified regex pattern
-     * @throws IllegalArgumentException if "pattern" parameter is missing or null
+     * @return PatternTypeMatcher configured with the specified regex pattern, compiled once
+     * @throws IllegalArgumentException if "pattern" parameter is missing, null or not a valid regular expression
      */
     private static TypeMatcher createRegexMatcher(StrategyConfig config) {
         String pattern = config.getConfigString("pattern");
         if (pattern == null) {
             throw new IllegalArgumentException("pattern is required for REGEX strategy");
         }
-        return new RegexTypeMatcher(pattern);
+        try {
+            return new PatternTypeMatcher(Pattern.compile(pattern));
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("invalid pattern for REGEX strategy: " + e.getDescription() +
+                    " near index " + e.getIndex() + " in " + pattern, e);
+        }
     }
     
     /**
@@ -187,10 +273,21 @@ public class StrategyFactory {
         if (annotationProperty == null) {
             throw new IllegalArgumentException("annotationProperty is required for CUSTOM_ANNOTATION strategy");
         }
+        requireQualifiedName(annotationType, "CUSTOM_ANNOTATION");
         
         return new NewComponentStrategy(annotationType, propertyName, annotationProperty);
     }
     
+    /**
+     * Rejects annotation types that cannot name a Java type, such as "@Service" or "org..Service".
+     */
+    private static void requireQualifiedName(String annotationType, String strategyType) {
+        if (!QUALIFIED_NAME.matcher(annotationType).matches()) {
+            throw new IllegalArgumentException("annotationType '" + annotationType + "' is not a fully qualified type name for " +
+                    strategyType + " strategy");
+        }
+    }
+
     /**
      * Validates that a strategy configuration has all required parameters.
      * 